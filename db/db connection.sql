@@ -77,6 +77,13 @@ CREATE TABLE product_images (
     alt_text VARCHAR(200),
     is_primary BOOLEAN DEFAULT FALSE,
     sort_order INT DEFAULT 0,
+    original_path VARCHAR(500),
+    thumb_url VARCHAR(500),
+    medium_url VARCHAR(500),
+    large_url VARCHAR(500),
+    width INT,
+    height INT,
+    rendition_status VARCHAR(20),
     FOREIGN KEY (product_id) REFERENCES products(product_id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
@@ -144,9 +151,10 @@ CREATE TABLE admin_users (
 -- 11. Cart Header Table
 CREATE TABLE cart_header (
   cart_header_id INT PRIMARY KEY AUTO_INCREMENT,
-  session_id VARCHAR(128) NOT NULL UNIQUE,
+  session_id VARCHAR(128) NOT NULL UNIQUE,            -- session id or cart token
   created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-  updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+  updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  version BIGINT NOT NULL DEFAULT 0                  -- optimistic lock, bumped on every cart write
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- 12. Cart Items Table
@@ -154,12 +162,16 @@ CREATE TABLE cart_items (
     cart_item_id INT PRIMARY KEY AUTO_INCREMENT,
     cart_header_id INT NOT NULL,
     product_id INT NOT NULL,
+    attribute_value_id INT NULL,
+    -- non-null copy of attribute_value_id for the unique key (NULLs never collide in a unique key)
+    attribute_key INT GENERATED ALWAYS AS (IFNULL(attribute_value_id, 0)) STORED NOT NULL,
     quantity INT NOT NULL DEFAULT 1,
+    unit_price DECIMAL(12,2) NULL,                      -- price captured when the line was added
     added_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (cart_header_id) REFERENCES cart_header(cart_header_id) ON DELETE CASCADE,
     FOREIGN KEY (product_id) REFERENCES products(product_id) ON DELETE CASCADE,
-    UNIQUE KEY unique_cart_product (cart_header_id, product_id)
+    UNIQUE KEY unique_cart_product (cart_header_id, product_id, attribute_key)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 
@@ -253,6 +265,20 @@ CREATE TABLE reviews (
     FOREIGN KEY (product_id) REFERENCES products(product_id) ON DELETE CASCADE ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- running totals of approved reviews per product (maintained by the application)
+CREATE TABLE product_rating_summary (
+    product_id INT PRIMARY KEY,
+    review_count BIGINT NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    rating_1 BIGINT NOT NULL DEFAULT 0,
+    rating_2 BIGINT NOT NULL DEFAULT 0,
+    rating_3 BIGINT NOT NULL DEFAULT 0,
+    rating_4 BIGINT NOT NULL DEFAULT 0,
+    rating_5 BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (product_id) REFERENCES products(product_id) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 
 
 -- ========================================
@@ -315,10 +341,17 @@ CREATE INDEX IF NOT EXISTS idx_order_items_product ON order_items(product_id);
 
 -- slips: find by order and payment_status quickly
 CREATE INDEX IF NOT EXISTS idx_slips_order_payment ON slips(order_id, payment_status_id);
+-- detect the same slip (by content hash) reused across orders
+CREATE INDEX IF NOT EXISTS idx_slips_checksum ON slips(checksum);
 
 -- reviews: show reviews per product and filter by rating
 CREATE INDEX IF NOT EXISTS idx_reviews_product ON reviews(product_id);
 CREATE INDEX IF NOT EXISTS idx_reviews_rating ON reviews(rating);
+-- paged public reviews: approved reviews of a product newest first, or by rating (keyset on review_date, review_id)
+CREATE INDEX IF NOT EXISTS idx_reviews_product_approved_date ON reviews(product_id, is_approved, review_date, review_id);
+CREATE INDEX IF NOT EXISTS idx_reviews_product_approved_rating ON reviews(product_id, is_approved, rating, review_date, review_id);
+-- admin moderation queue: pending (or approved) reviews newest first
+CREATE INDEX IF NOT EXISTS idx_reviews_approved_date ON reviews(is_approved, review_date);
 
 
 -- ====== ADMIN / SEARCH / MISC ======
@@ -1,62 +1,190 @@
 package com.example.jewellery_backend;
 
+import com.example.jewellery_backend.util.Money;
 import lombok.*;
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
-@Getter
-@Setter
+/**
+ * Cart shared by all requests of one customer.
+ * Lines are kept in an immutable snapshot that is replaced with compare-and-set on every change,
+ * so concurrent updates (double clicks, several tabs) never lose each other and reads never lock.
+ * Lines inside a snapshot must not be modified; changes always copy the affected line.
+ */
 @NoArgsConstructor
-@AllArgsConstructor
-@Builder
 public class Cart {
     public static final String SESSION_ATTRIBUTE = "CART";
 
-    @Builder.Default
-    private Map<String, CartItem> items = new LinkedHashMap<>();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    // version of the stored cart this copy was loaded from (persistent storage only)
+    @Getter
+    @Setter
+    private volatile Long version;
 
     public void addItem(CartItem item) {
-        CartItem existing = items.get(item.getItemKey());
-        if (existing == null) {
-            item.recalcTotal();
-            items.put(item.getItemKey(), item);
-        } else {
-            existing.setQuantity(existing.getQuantity() + item.getQuantity());
-            existing.recalcTotal();
-        }
+        update(edit -> edit.add(item));
     }
 
     public void updateQuantity(String itemKey, int quantity) {
-        CartItem it = items.get(itemKey);
-        if (it != null) {
-            it.setQuantity(quantity);
-            it.recalcTotal();
-            if (it.getQuantity() <= 0) items.remove(itemKey);
-        }
+        update(edit -> edit.setQuantity(itemKey, quantity));
+    }
+
+    public void repriceItem(String itemKey, BigDecimal unitPrice) {
+        update(edit -> edit.reprice(itemKey, unitPrice));
     }
 
     public void removeItem(String itemKey) {
-        items.remove(itemKey);
+        update(edit -> edit.remove(itemKey));
+    }
+
+    public void clear() {
+        snapshot.set(Snapshot.EMPTY);
+    }
+
+    /**
+     * Independent cart with the same lines and version; changes to one do not show up in the other.
+     */
+    public Cart copy() {
+        Cart copy = new Cart();
+        copy.snapshot.set(snapshot.get());
+        copy.version = version;
+        return copy;
+    }
+
+    /**
+     * Current state of the cart; use one snapshot when several values must agree.
+     */
+    public Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    public Map<String, CartItem> getItems() {
+        return snapshot.get().items();
     }
 
     public List<CartItem> getItemList() {
-        return new ArrayList<>(items.values());
+        return snapshot.get().itemList();
     }
 
     public BigDecimal getCartTotal() {
-        return items.values().stream()
-                .map(CartItem::getTotalPrice)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return snapshot.get().cartTotal();
     }
 
     public int getTotalQuantity() {
-        return items.values().stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
+        return snapshot.get().totalQuantity();
     }
 
-    public void clear() {
-        items.clear();
+    /**
+     * Applies the changes to a copy of the current snapshot and swaps it in as one step,
+     * so readers see either all of the changes or none. Retried (changes re-applied) if another thread won.
+     */
+    public void update(Consumer<Edit> changes) {
+        Snapshot current;
+        Snapshot next;
+        do {
+            current = snapshot.get();
+            Edit edit = new Edit(current);
+            changes.accept(edit);
+            if (!edit.changed) return;
+            next = edit.toSnapshot();
+        } while (!snapshot.compareAndSet(current, next));
+    }
+
+    /**
+     * Line changes being prepared for one snapshot swap.
+     * Totals are adjusted by the difference between the old and new line instead of being recomputed.
+     */
+    public static final class Edit {
+        private final Map<String, CartItem> items;
+        private long totalMinor;
+        private int totalQuantity;
+        private boolean changed;
+
+        private Edit(Snapshot base) {
+            this.items = new LinkedHashMap<>(base.items());
+            this.totalMinor = base.totalMinor();
+            this.totalQuantity = base.totalQuantity();
+        }
+
+        public void add(CartItem item) {
+            replace(item.getItemKey(), existing -> {
+                CartItem merged = existing == null
+                        ? item.toBuilder().build()
+                        : existing.toBuilder().quantity(existing.getQuantity() + item.getQuantity()).build();
+                merged.recalcTotal();
+                return merged;
+            });
+        }
+
+        public void setQuantity(String itemKey, int quantity) {
+            replace(itemKey, existing -> {
+                if (existing == null || quantity <= 0) return null;
+                CartItem changed = existing.toBuilder().quantity(quantity).build();
+                changed.recalcTotal();
+                return changed;
+            });
+        }
+
+        public void reprice(String itemKey, BigDecimal unitPrice) {
+            replace(itemKey, existing -> {
+                if (existing == null) return null;
+                CartItem changed = existing.toBuilder().unitPrice(unitPrice).build();
+                changed.recalcTotal();
+                return changed;
+            });
+        }
+
+        public void remove(String itemKey) {
+            replace(itemKey, existing -> null);
+        }
+
+        // whether the line exists at this point of the edit
+        public boolean contains(String itemKey) {
+            return items.containsKey(itemKey);
+        }
+
+        // replaces one line, null removes it
+        private void replace(String itemKey, UnaryOperator<CartItem> change) {
+            CartItem existing = items.get(itemKey);
+            CartItem replacement = change.apply(existing);
+            if (existing == null && replacement == null) return;
+
+            if (existing != null) {
+                totalMinor -= existing.getTotalMinor();
+                totalQuantity -= existing.getQuantity();
+            }
+            if (replacement != null) {
+                items.put(itemKey, replacement);
+                totalMinor += replacement.getTotalMinor();
+                totalQuantity += replacement.getQuantity();
+            } else {
+                items.remove(itemKey);
+            }
+            changed = true;
+        }
+
+        private Snapshot toSnapshot() {
+            return new Snapshot(Collections.unmodifiableMap(items), totalMinor, totalQuantity);
+        }
+    }
+
+    /**
+     * Immutable cart state. Totals are running values in minor units (cents),
+     * converted to BigDecimal only when the cart is rendered.
+     */
+    public record Snapshot(Map<String, CartItem> items, long totalMinor, int totalQuantity) {
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), 0L, 0);
+
+        public List<CartItem> itemList() {
+            return new ArrayList<>(items.values());
+        }
+
+        public BigDecimal cartTotal() {
+            return Money.fromMinor(totalMinor);
+        }
     }
 }
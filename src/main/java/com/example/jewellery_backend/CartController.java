@@ -2,7 +2,8 @@ package com.example.jewellery_backend;
 
 import com.example.jewellery_backend.dto.*;
 import com.example.jewellery_backend.service.CartService;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,31 +17,47 @@ import java.util.List;
 public class CartController {
 
     private final CartService cartService;
+    private final CartTokenResolver cartTokenResolver;
 
     @GetMapping
-    public ResponseEntity<CartResponseDto> viewCart(HttpSession session) {
-        return ResponseEntity.ok(cartService.getCart(session));
+    public ResponseEntity<CartResponseDto> viewCart(HttpServletRequest request, HttpServletResponse response) {
+        return ResponseEntity.ok(cartService.getCart(cartTokenResolver.resolve(request, response)));
     }
 
     @PostMapping("/add")
-    public ResponseEntity<CartResponseDto> addToCart(HttpSession session, @RequestBody AddToCartRequest req) {
-        return ResponseEntity.ok(cartService.addToCart(session, req));
+    public ResponseEntity<CartResponseDto> addToCart(HttpServletRequest request, HttpServletResponse response,
+                                                     @RequestBody AddToCartRequest req) {
+        return ResponseEntity.ok(cartService.addToCart(cartTokenResolver.resolve(request, response), req));
     }
 
     @PutMapping("/item")
-    public ResponseEntity<CartResponseDto> updateItem(HttpSession session, @RequestBody UpdateCartItemRequest req) {
-        return ResponseEntity.ok(cartService.updateCartItem(session, req));
+    public ResponseEntity<CartResponseDto> updateItem(HttpServletRequest request, HttpServletResponse response,
+                                                      @RequestBody UpdateCartItemRequest req) {
+        return ResponseEntity.ok(cartService.updateCartItem(cartTokenResolver.resolve(request, response), req));
     }
 
     @DeleteMapping("/item/{itemKey}")
-    public ResponseEntity<CartResponseDto> removeItem(HttpSession session, @PathVariable String itemKey) {
-        return ResponseEntity.ok(cartService.removeItem(session, itemKey));
+    public ResponseEntity<CartResponseDto> removeItem(HttpServletRequest request, HttpServletResponse response,
+                                                      @PathVariable String itemKey) {
+        return ResponseEntity.ok(cartService.removeItem(cartTokenResolver.resolve(request, response), itemKey));
+    }
+
+    // several add / update / remove operations applied together, e.g. adding a whole set or restoring a cart
+    @PostMapping("/bulk")
+    public ResponseEntity<CartResponseDto> bulkUpdate(HttpServletRequest request, HttpServletResponse response,
+                                                      @RequestBody BulkCartRequest req) {
+        return ResponseEntity.ok(cartService.applyBulk(cartTokenResolver.resolve(request, response), req));
+    }
+
+    // call before showing the payment page; lines are moved to current prices, stock problems are only reported
+    @PostMapping("/validate")
+    public ResponseEntity<CartValidationResultDto> validateCart(HttpServletRequest request, HttpServletResponse response) {
+        return ResponseEntity.ok(cartService.validateCart(cartTokenResolver.resolve(request, response)));
     }
 
     @DeleteMapping("/clear")
-    public ResponseEntity<CartResponseDto> clearCart(HttpSession session) {
-        return ResponseEntity.ok(cartService.clearCart(session));
+    public ResponseEntity<CartResponseDto> clearCart(HttpServletRequest request, HttpServletResponse response) {
+        return ResponseEntity.ok(cartService.clearCart(cartTokenResolver.resolve(request, response)));
     }
 }
 
-
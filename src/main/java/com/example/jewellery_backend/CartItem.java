@@ -1,5 +1,6 @@
 package com.example.jewellery_backend;
 
+import com.example.jewellery_backend.util.Money;
 import java.math.BigDecimal;
 import lombok.*;
 
@@ -7,23 +8,29 @@ import lombok.*;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class CartItem {
     private String itemKey; // e.g. "productId:attributeValueId"
     private Long productId;
     private Long attributeValueId; // nullable
     private String productName;
     private BigDecimal unitPrice;
-    private BigDecimal totalPrice;
     private Integer quantity;
 
+    // line total in minor units (cents); kept in step with unitPrice and quantity by recalcTotal()
+    private long totalMinor;
+
     // product image fields
     private String imageUrl;
     private String imageAlt;
 
     public void recalcTotal() {
         if (unitPrice != null && quantity != null) {
-            this.totalPrice = unitPrice.multiply(new BigDecimal(quantity));
+            this.totalMinor = Math.multiplyExact(Money.toMinor(unitPrice), (long) quantity);
         }
     }
+
+    public BigDecimal getTotalPrice() {
+        return Money.fromMinor(totalMinor);
+    }
 }
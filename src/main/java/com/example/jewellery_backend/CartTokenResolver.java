@@ -0,0 +1,57 @@
+package com.example.jewellery_backend;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the cart token from the CART_TOKEN cookie or X-Cart-Token header,
+ * issuing a new one when the client has none.
+ */
+@Component
+public class CartTokenResolver {
+
+    public static final String COOKIE_NAME = "CART_TOKEN";
+    public static final String HEADER_NAME = "X-Cart-Token";
+
+    private static final Pattern VALID_TOKEN = Pattern.compile("[A-Za-z0-9-]{16,128}");
+    private static final Duration COOKIE_MAX_AGE = Duration.ofDays(30);
+
+    public String resolve(HttpServletRequest request, HttpServletResponse response) {
+        String token = request.getHeader(HEADER_NAME);
+        if (!isValid(token)) {
+            token = readCookie(request);
+        }
+        if (!isValid(token)) {
+            token = UUID.randomUUID().toString();
+            ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, token)
+                    .httpOnly(true)
+                    .path("/")
+                    .maxAge(COOKIE_MAX_AGE)
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+        response.setHeader(HEADER_NAME, token);
+        return token;
+    }
+
+    private String readCookie(HttpServletRequest request) {
+        if (request.getCookies() == null) return null;
+        for (Cookie c : request.getCookies()) {
+            if (COOKIE_NAME.equals(c.getName())) return c.getValue();
+        }
+        return null;
+    }
+
+    private boolean isValid(String token) {
+        return token != null && VALID_TOKEN.matcher(token).matches();
+    }
+}
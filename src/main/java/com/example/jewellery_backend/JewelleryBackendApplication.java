@@ -3,10 +3,19 @@ package com.example.jewellery_backend;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import com.example.jewellery_backend.config.CartProperties;
 import com.example.jewellery_backend.config.FileStorageProperties;
+import com.example.jewellery_backend.config.JwtProperties;
+import com.example.jewellery_backend.config.LoginProperties;
+import com.example.jewellery_backend.config.ReviewIngestionProperties;
+import com.example.jewellery_backend.config.UploadCleanupProperties;
 
 @SpringBootApplication
-@EnableConfigurationProperties(FileStorageProperties.class)
+@EnableConfigurationProperties({FileStorageProperties.class, CartProperties.class,
+        ReviewIngestionProperties.class, UploadCleanupProperties.class, JwtProperties.class,
+        LoginProperties.class})
+@EnableScheduling
 public class JewelleryBackendApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,38 @@
+package com.example.jewellery_backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "cart")
+
+public class CartProperties {
+    /**
+     * "session" keeps the cart in the HttpSession (single node),
+     * "persistent" stores it in cart_header / cart_items keyed by the cart token.
+     */
+    private String storage = "session";
+
+    // in-memory hot tier used by the persistent store
+    private int hotTierMaxEntries = 10000;
+    private long hotTierIdleMinutes = 30;
+
+    public String getStorage() {
+        return storage;
+    }
+    public void setStorage(String storage) {
+        this.storage = storage;
+    }
+
+    public int getHotTierMaxEntries() {
+        return hotTierMaxEntries;
+    }
+    public void setHotTierMaxEntries(int hotTierMaxEntries) {
+        this.hotTierMaxEntries = hotTierMaxEntries;
+    }
+
+    public long getHotTierIdleMinutes() {
+        return hotTierIdleMinutes;
+    }
+    public void setHotTierIdleMinutes(long hotTierIdleMinutes) {
+        this.hotTierIdleMinutes = hotTierIdleMinutes;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.jewellery_backend.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates requests carrying "Authorization: Bearer <jwt>" from the token alone (no database, no session).
+ * Requests without a valid token simply stay anonymous; the authorization rules decide what they may do.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final JwtTokenProvider tokenProvider;
+    private final TokenRevocationList revocationList;
+
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, TokenRevocationList revocationList) {
+        this.tokenProvider = tokenProvider;
+        this.revocationList = revocationList;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER)) {
+            try {
+                Claims claims = tokenProvider.parse(header.substring(BEARER.length()).trim());
+                if (!revocationList.isRevoked(claims.getId(), claims.getSubject(), claims.getIssuedAt())) {
+                    UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                            claims.getSubject(), null, tokenProvider.authorities(claims));
+                    // the claims travel with the authentication (logout needs the token id and expiry)
+                    auth.setDetails(claims);
+                    SecurityContext context = SecurityContextHolder.createEmptyContext();
+                    context.setAuthentication(auth);
+                    SecurityContextHolder.setContext(context);
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // invalid or expired: treated as anonymous
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.jewellery_backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "security.jwt")
+
+public class JwtProperties {
+    /**
+     * HMAC-SHA256 key, at least 32 characters. Must be the same on every node.
+     */
+    private String secret;
+    // kept short: revocations are only known to the node that made them
+    private long expirationMinutes = 60;
+    private String issuer = "jewellery-backend";
+
+    public String getSecret() {
+        return secret;
+    }
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    public long getExpirationMinutes() {
+        return expirationMinutes;
+    }
+    public void setExpirationMinutes(long expirationMinutes) {
+        this.expirationMinutes = expirationMinutes;
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+    public void setIssuer(String issuer) {
+        this.issuer = issuer;
+    }
+}
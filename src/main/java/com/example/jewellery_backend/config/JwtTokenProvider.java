@@ -0,0 +1,95 @@
+package com.example.jewellery_backend.config;
+
+import com.example.jewellery_backend.entity.AdminUser;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Issues and checks the signed admin tokens. Everything needed to authorize a request
+ * (username, role, permissions) is in the token, so no database lookup is needed per request.
+ */
+@Component
+public class JwtTokenProvider {
+
+    public static final String CLAIM_ADMIN_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_PERMISSIONS = "perms";
+
+    private final JwtProperties props;
+    private final byte[] key;
+
+    public JwtTokenProvider(JwtProperties props) {
+        this.props = props;
+        if (props.getSecret() == null || props.getSecret().length() < 32) {
+            throw new IllegalStateException("security.jwt.secret must be set to at least 32 characters");
+        }
+        this.key = props.getSecret().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public record IssuedToken(String token, String id, Date expiresAt) {}
+
+    public IssuedToken issue(AdminUser user) {
+        List<String> permissions = new ArrayList<>();
+        if (user.getPermissions() != null) {
+            user.getPermissions().forEach((name, granted) -> {
+                if (Boolean.TRUE.equals(granted)) permissions.add(name);
+            });
+        }
+        Collections.sort(permissions);
+
+        String id = UUID.randomUUID().toString();
+        Date now = new Date();
+        Date expiresAt = new Date(now.getTime() + props.getExpirationMinutes() * 60_000);
+        String token = Jwts.builder()
+                .setId(id)
+                .setIssuer(props.getIssuer())
+                .setSubject(user.getUsername())
+                .setIssuedAt(now)
+                .setExpiration(expiresAt)
+                .claim(CLAIM_ADMIN_ID, user.getAdminId())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_PERMISSIONS, permissions)
+                .signWith(SignatureAlgorithm.HS256, key)
+                .compact();
+        return new IssuedToken(token, id, expiresAt);
+    }
+
+    /**
+     * Verifies signature, issuer and expiry; throws JwtException if the token is not valid.
+     */
+    public Claims parse(String token) {
+        Claims claims = Jwts.parser()
+                .setSigningKey(key)
+                .requireIssuer(props.getIssuer())
+                .parseClaimsJws(token)
+                .getBody();
+        if (claims.getSubject() == null || claims.getId() == null) {
+            throw new JwtException("Token without subject or id");
+        }
+        return claims;
+    }
+
+    // ROLE_<ROLE> for hasRole(...) plus one authority per granted permission for hasAuthority(...)
+    public List<GrantedAuthority> authorities(Claims claims) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        Object role = claims.get(CLAIM_ROLE);
+        if (role != null) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role.toString().toUpperCase()));
+        }
+        Object permissions = claims.get(CLAIM_PERMISSIONS);
+        if (permissions instanceof Collection<?> names) {
+            for (Object name : names) {
+                authorities.add(new SimpleGrantedAuthority(name.toString()));
+            }
+        }
+        return authorities;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.jewellery_backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "security.login")
+
+public class LoginProperties {
+    // BCrypt checks run on this many threads; when they and the queue are busy, logins get 429
+    private int verifierThreads = 2;
+    private int verifierQueueCapacity = 32;
+
+    // failed attempts within the window before the username / client address is locked out
+    private int maxFailuresPerUser = 5;
+    private int maxFailuresPerIp = 30;
+    private long failureWindowMinutes = 15;
+    private long lockoutMinutes = 15;
+    // upper bound on tracked usernames / addresses
+    private int maxTrackedKeys = 100_000;
+
+    // how often coalesced last_login values are written
+    private long lastLoginFlushMillis = 10_000;
+
+    public int getVerifierThreads() {
+        return verifierThreads;
+    }
+    public void setVerifierThreads(int verifierThreads) {
+        this.verifierThreads = verifierThreads;
+    }
+
+    public int getVerifierQueueCapacity() {
+        return verifierQueueCapacity;
+    }
+    public void setVerifierQueueCapacity(int verifierQueueCapacity) {
+        this.verifierQueueCapacity = verifierQueueCapacity;
+    }
+
+    public int getMaxFailuresPerUser() {
+        return maxFailuresPerUser;
+    }
+    public void setMaxFailuresPerUser(int maxFailuresPerUser) {
+        this.maxFailuresPerUser = maxFailuresPerUser;
+    }
+
+    public int getMaxFailuresPerIp() {
+        return maxFailuresPerIp;
+    }
+    public void setMaxFailuresPerIp(int maxFailuresPerIp) {
+        this.maxFailuresPerIp = maxFailuresPerIp;
+    }
+
+    public long getFailureWindowMinutes() {
+        return failureWindowMinutes;
+    }
+    public void setFailureWindowMinutes(long failureWindowMinutes) {
+        this.failureWindowMinutes = failureWindowMinutes;
+    }
+
+    public long getLockoutMinutes() {
+        return lockoutMinutes;
+    }
+    public void setLockoutMinutes(long lockoutMinutes) {
+        this.lockoutMinutes = lockoutMinutes;
+    }
+
+    public int getMaxTrackedKeys() {
+        return maxTrackedKeys;
+    }
+    public void setMaxTrackedKeys(int maxTrackedKeys) {
+        this.maxTrackedKeys = maxTrackedKeys;
+    }
+
+    public long getLastLoginFlushMillis() {
+        return lastLoginFlushMillis;
+    }
+    public void setLastLoginFlushMillis(long lastLoginFlushMillis) {
+        this.lastLoginFlushMillis = lastLoginFlushMillis;
+    }
+}
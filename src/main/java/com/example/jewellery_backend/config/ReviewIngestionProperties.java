@@ -0,0 +1,71 @@
+package com.example.jewellery_backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "reviews.ingestion")
+
+public class ReviewIngestionProperties {
+    /**
+     * "direct" saves each review in its own transaction,
+     * "buffered" acknowledges at once and writes reviews to the database in batches.
+     */
+    private String mode = "direct";
+
+    private int queueCapacity = 10000;
+    private int batchSize = 200;
+    private long flushIntervalMillis = 500;
+    // how long a request waits for queue space before it is turned away
+    private long offerTimeoutMillis = 50;
+    // reviews that could not be written (database down, shutdown) are kept here and replayed at startup
+    private String spoolFile = "review-spool.ndjson";
+    private long productIdsRefreshSeconds = 60;
+
+    public String getMode() {
+        return mode;
+    }
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public long getOfferTimeoutMillis() {
+        return offerTimeoutMillis;
+    }
+    public void setOfferTimeoutMillis(long offerTimeoutMillis) {
+        this.offerTimeoutMillis = offerTimeoutMillis;
+    }
+
+    public String getSpoolFile() {
+        return spoolFile;
+    }
+    public void setSpoolFile(String spoolFile) {
+        this.spoolFile = spoolFile;
+    }
+
+    public long getProductIdsRefreshSeconds() {
+        return productIdsRefreshSeconds;
+    }
+    public void setProductIdsRefreshSeconds(long productIdsRefreshSeconds) {
+        this.productIdsRefreshSeconds = productIdsRefreshSeconds;
+    }
+}
@@ -3,13 +3,17 @@ package com.example.jewellery_backend.config;
 import com.example.jewellery_backend.config.AdminUserDetailsService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -21,9 +25,15 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final AdminUserDetailsService adminUserDetailsService;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationList tokenRevocationList;
 
-    public SecurityConfig(AdminUserDetailsService adminUserDetailsService) {
+    public SecurityConfig(AdminUserDetailsService adminUserDetailsService,
+                          JwtTokenProvider jwtTokenProvider,
+                          TokenRevocationList tokenRevocationList) {
         this.adminUserDetailsService = adminUserDetailsService;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenRevocationList = tokenRevocationList;
     }
 
     // -------------------- Security Filter Chain --------------------
@@ -59,6 +69,11 @@ public class SecurityConfig {
                         // --- Allow All Other Requests (e.g., static files if served) ---
                         .anyRequest().permitAll()
                 )
+                // admins authenticate with a bearer JWT on every request: no security session, no user lookup
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(new JwtAuthenticationFilter(jwtTokenProvider, tokenRevocationList),
+                        UsernamePasswordAuthenticationFilter.class)
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .formLogin(form -> form.disable())
                 .logout(logout -> logout.disable())
                 .httpBasic(basic -> basic.disable());
@@ -73,7 +88,8 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
         configuration.setAllowedMethods(Arrays.asList("GET","POST","PUT","DELETE","OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization","Cache-Control","Content-Type","X-XSRF-TOKEN","X-Requested-With"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization","Cache-Control","Content-Type","X-XSRF-TOKEN","X-Requested-With","X-Cart-Token"));
+        configuration.setExposedHeaders(Arrays.asList("X-Cart-Token"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -0,0 +1,52 @@
+package com.example.jewellery_backend.config;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tokens that must not be accepted any more although they have not expired:
+ * single tokens on logout, and every token issued to a user before a cut-off (deactivation).
+ * Held in memory only; entries are dropped once the tokens they cover have expired anyway,
+ * so the list stays small and the short token lifetime bounds how long another node may still accept them.
+ */
+@Component
+public class TokenRevocationList {
+
+    // token id -> expiry (epoch millis)
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // username -> tokens issued at or before this time are revoked (epoch millis)
+    private final Map<String, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    private final JwtProperties props;
+
+    public TokenRevocationList(JwtProperties props) {
+        this.props = props;
+    }
+
+    public void revokeToken(String tokenId, Date expiresAt) {
+        revokedTokens.put(tokenId, expiresAt.getTime());
+    }
+
+    public void revokeAllFor(String username) {
+        revokedBefore.put(username, System.currentTimeMillis());
+    }
+
+    public boolean isRevoked(String tokenId, String username, Date issuedAt) {
+        if (revokedTokens.containsKey(tokenId)) return true;
+        Long cutOff = revokedBefore.get(username);
+        // iat has second precision, so a token issued in the same second as the cut-off counts as revoked
+        return cutOff != null && (issuedAt == null || issuedAt.getTime() <= cutOff);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+        long maxAge = props.getExpirationMinutes() * 60_000;
+        revokedBefore.values().removeIf(cutOff -> cutOff + maxAge < now);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.jewellery_backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "file.cleanup")
+
+public class UploadCleanupProperties {
+    private boolean enabled = true;
+    // files younger than this are never touched (upload still in its transaction, renditions being written)
+    private long graceHours = 24;
+    // paths looked up in the database per query
+    private int batchSize = 500;
+    // the walk stops after this many files and continues from the checkpoint on the next run
+    private int maxFilesPerRun = 20000;
+    // pause after each batch to keep disk and database load low
+    private long pauseMillis = 200;
+    // last path checked, relative to the upload dir
+    private String checkpointFile = ".cleanup-checkpoint";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getGraceHours() {
+        return graceHours;
+    }
+    public void setGraceHours(long graceHours) {
+        this.graceHours = graceHours;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxFilesPerRun() {
+        return maxFilesPerRun;
+    }
+    public void setMaxFilesPerRun(int maxFilesPerRun) {
+        this.maxFilesPerRun = maxFilesPerRun;
+    }
+
+    public long getPauseMillis() {
+        return pauseMillis;
+    }
+    public void setPauseMillis(long pauseMillis) {
+        this.pauseMillis = pauseMillis;
+    }
+
+    public String getCheckpointFile() {
+        return checkpointFile;
+    }
+    public void setCheckpointFile(String checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
+}
@@ -1,16 +1,24 @@
 package com.example.jewellery_backend.controller;
 
 import com.example.jewellery_backend.dto.OrderResponseDto;
+import com.example.jewellery_backend.dto.SlipDuplicateDto;
+import com.example.jewellery_backend.dto.StorageMigrationResultDto;
 import com.example.jewellery_backend.dto.UpdateStatusDto;
 import com.example.jewellery_backend.entity.Order;
 import com.example.jewellery_backend.entity.OrderStatusType;
+import com.example.jewellery_backend.entity.Slip;
+import com.example.jewellery_backend.service.FileDownloadService;
 import com.example.jewellery_backend.service.OrderService;
+import com.example.jewellery_backend.service.SlipStorageMigrationService;
 import com.example.jewellery_backend.util.Mapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,9 +28,14 @@ import java.util.stream.Collectors;
 public class AdminOrderController {
 
     private final OrderService orderService;
+    private final FileDownloadService fileDownloadService;
+    private final SlipStorageMigrationService slipStorageMigrationService;
 
-    public AdminOrderController(OrderService orderService) {
+    public AdminOrderController(OrderService orderService, FileDownloadService fileDownloadService,
+                                SlipStorageMigrationService slipStorageMigrationService) {
         this.orderService = orderService;
+        this.fileDownloadService = fileDownloadService;
+        this.slipStorageMigrationService = slipStorageMigrationService;
     }
 
     @GetMapping
@@ -68,4 +81,34 @@ public class AdminOrderController {
 
         return ResponseEntity.ok(Mapper.toOrderResponseDto(updated));
     }
+
+    // other orders whose slip has the same content as this order's slip
+    @GetMapping("/{id}/slip/duplicates")
+    public ResponseEntity<List<SlipDuplicateDto>> slipDuplicates(@PathVariable Long id) {
+        List<SlipDuplicateDto> dtos = orderService.findDuplicateSlips(id).stream()
+                .map(s -> SlipDuplicateDto.builder()
+                        .slipId(s.getSlipId())
+                        .orderId(s.getOrder().getOrderId())
+                        .fileName(s.getFileName())
+                        .uploadedAt(s.getUploadedAt())
+                        .verified(s.getVerified())
+                        .build())
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(dtos);
+    }
+
+    // the slip file itself, streamed (supports Range and conditional requests)
+    @GetMapping("/{id}/slip/file")
+    public void slipFile(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Slip slip = orderService.getSlip(id);
+        fileDownloadService.serve(slip.getFilePath(), slip.getFileType(), slip.getFileName(), true, request, response);
+    }
+
+    // Moves slips from the old per-order directories into hashed storage; call again with nextAfterId until done
+    @PostMapping("/slips/migrate-storage")
+    public ResponseEntity<StorageMigrationResultDto> migrateSlipStorage(
+            @RequestParam(value = "afterId", defaultValue = "0") Long afterId,
+            @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(slipStorageMigrationService.migrate(afterId, limit));
+    }
 }
@@ -2,10 +2,16 @@ package com.example.jewellery_backend.controller;
 
 import com.example.jewellery_backend.dto.*;
 import com.example.jewellery_backend.service.AdminUserService;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/admin-users")
 @RequiredArgsConstructor
@@ -18,9 +24,26 @@ public class AdminUserController {
         return ResponseEntity.ok(service.register(request));
     }
 
+    // async: the password check runs on its own pool, not on the request thread
     @PostMapping("/login")
-    public ResponseEntity<AdminUserLoginResponse> login(@RequestBody AdminUserLoginRequest request) {
-        return ResponseEntity.ok(service.login(request));
+    public CompletableFuture<ResponseEntity<AdminUserLoginResponse>> login(@RequestBody AdminUserLoginRequest request,
+                                                                           HttpServletRequest httpRequest) {
+        return service.login(request, httpRequest.getRemoteAddr()).thenApply(ResponseEntity::ok);
+    }
+
+    // revokes the token used for this request
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(Authentication authentication) {
+        if (authentication != null && authentication.getDetails() instanceof Claims claims) {
+            service.logout(claims.getId(), claims.getExpiration());
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @PutMapping("/{id}/deactivate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AdminUserResponse> deactivate(@PathVariable Long id) {
+        return ResponseEntity.ok(service.deactivate(id));
     }
 
     @GetMapping("/{id}")
@@ -1,5 +1,6 @@
 package com.example.jewellery_backend.controller;
 
+import com.example.jewellery_backend.dto.CategoryClosureCheckDto;
 import com.example.jewellery_backend.dto.CategoryDto;
 import com.example.jewellery_backend.entity.Category;
 import com.example.jewellery_backend.service.CategoryService;
@@ -39,6 +40,23 @@ public class CategoryController {
         CategoryDto updated = categoryService.updateCategory(id, dto);
         return ResponseEntity.ok(updated);
     }
+
+    // moves the category and its subtree; without parentId it becomes a top-level category
+    @PutMapping("/{id}/parent")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CategoryDto> move(@PathVariable Long id,
+                                            @RequestParam(value = "parentId", required = false) Long parentId) {
+        return ResponseEntity.ok(categoryService.moveCategory(id, parentId));
+    }
+
+    // compares categories_closure with the parent links; repair=true rebuilds it when they differ
+    @PostMapping("/closure/check")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CategoryClosureCheckDto> checkClosure(
+            @RequestParam(value = "repair", defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(categoryService.checkClosure(repair));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
@@ -1,11 +1,13 @@
 package com.example.jewellery_backend.controller;
+import com.example.jewellery_backend.CartTokenResolver;
 import com.example.jewellery_backend.dto.OrderRequestDto;
 import com.example.jewellery_backend.dto.OrderResponseDto;
 import com.example.jewellery_backend.entity.Order;
 import com.example.jewellery_backend.service.FileStorageService;
 import com.example.jewellery_backend.service.OrderService;
 import com.example.jewellery_backend.util.Mapper;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -20,22 +22,26 @@ public class OrderController {
     private final OrderService orderService;
     // fileStorageService might not be directly needed here anymore, but OrderService uses it.
     private final FileStorageService fileStorageService; // Keep if needed by constructor injection
+    private final CartTokenResolver cartTokenResolver;
 
-    // Constructor remains the same
-    public OrderController(OrderService orderService, FileStorageService fileStorageService) {
+    public OrderController(OrderService orderService, FileStorageService fileStorageService,
+                           CartTokenResolver cartTokenResolver) {
         this.orderService = orderService;
         this.fileStorageService = fileStorageService;
+        this.cartTokenResolver = cartTokenResolver;
     }
 
-    // Combined endpoint for creating an order from session cart and uploading the slip
+    // Combined endpoint for creating an order from the customer's cart and uploading the slip
     @PostMapping(consumes = { MediaType.MULTIPART_FORM_DATA_VALUE })
     public ResponseEntity<OrderResponseDto> createOrderAndUploadSlip(
             @RequestPart("orderData") @Valid OrderRequestDto orderRequestDto, // User details as JSON part
             @RequestPart(value = "slipFile", required = true) MultipartFile slipFile, // Slip file part
-            HttpSession session // Inject HttpSession
+            HttpServletRequest request,
+            HttpServletResponse response
     ) {
         // Calls the service method responsible for handling cart items, stock, slip, etc.
-        Order createdOrder = orderService.createOrderFromSessionCart(orderRequestDto, slipFile, session);
+        String cartToken = cartTokenResolver.resolve(request, response);
+        Order createdOrder = orderService.createOrderFromSessionCart(orderRequestDto, slipFile, cartToken);
         return ResponseEntity.status(HttpStatus.CREATED).body(Mapper.toOrderResponseDto(createdOrder));
     }
 }
\ No newline at end of file
@@ -1,12 +1,22 @@
 package com.example.jewellery_backend.controller;
 
 import com.example.jewellery_backend.dto.CategoryDto;
+import com.example.jewellery_backend.dto.CategoryTreeNodeDto;
 import com.example.jewellery_backend.dto.ProductDto;
+import com.example.jewellery_backend.dto.RatingSummaryDto;
 import com.example.jewellery_backend.service.CategoryService;
+import com.example.jewellery_backend.service.CategoryTreeCache;
+import com.example.jewellery_backend.service.FileDownloadService;
 import com.example.jewellery_backend.service.ProductService;
+import com.example.jewellery_backend.service.ReviewService;
+import com.example.jewellery_backend.util.ProductImageUrls;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -15,11 +25,22 @@ public class PublicController {
 
     private final CategoryService categoryService;
     private final ProductService productService;
+    private final ReviewService reviewService;
+    private final FileDownloadService fileDownloadService;
+    private final CategoryTreeCache categoryTreeCache;
+
+    private static final int MAX_RATING_IDS = 200;
 
     public PublicController(CategoryService categoryService,
-                            ProductService productService) {
+                            ProductService productService,
+                            ReviewService reviewService,
+                            FileDownloadService fileDownloadService,
+                            CategoryTreeCache categoryTreeCache) {
         this.categoryService = categoryService;
         this.productService = productService;
+        this.reviewService = reviewService;
+        this.fileDownloadService = fileDownloadService;
+        this.categoryTreeCache = categoryTreeCache;
     }
 
     @GetMapping("/categories")
@@ -27,6 +48,17 @@ public class PublicController {
         return ResponseEntity.ok(categoryService.getAllCategories());
     }
 
+    // served from the in-memory tree, no database access
+    @GetMapping("/categories/tree")
+    public ResponseEntity<List<CategoryTreeNodeDto>> categoryTree() {
+        return ResponseEntity.ok(categoryTreeCache.getTree());
+    }
+
+    @GetMapping("/categories/{id}/breadcrumbs")
+    public ResponseEntity<List<CategoryDto>> breadcrumbs(@PathVariable Long id) {
+        return ResponseEntity.ok(categoryTreeCache.getBreadcrumbs(id));
+    }
+
     @GetMapping("/categories/{id}")
     public ResponseEntity<CategoryDto> getCategory(@PathVariable Long id) {
         return ResponseEntity.ok(categoryService.getCategoryById(id));
@@ -42,4 +74,23 @@ public class PublicController {
         List<ProductDto> products = productService.getProductsByCategoryId(id);
         return ResponseEntity.ok(products);
     }
+
+    // Ratings for a page of product cards, e.g. /api/public/products/ratings?ids=1,2,3
+    @GetMapping("/products/ratings")
+    public ResponseEntity<List<RatingSummaryDto>> productRatings(@RequestParam List<Long> ids) {
+        if (ids.size() > MAX_RATING_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_RATING_IDS + " product ids per request");
+        }
+        return ResponseEntity.ok(reviewService.getRatingSummaries(ids));
+    }
+
+    // Product images stored under uploads/blobs/images, e.g. /api/public/images/ab/cd/<hash>
+    @GetMapping("/images/{*path}")
+    public void image(@PathVariable String path, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String relativePath = ProductImageUrls.BLOB_PREFIX + path.substring(1);
+        String contentType = MediaTypeFactory.getMediaType(relativePath)
+                .map(Object::toString)
+                .orElse("image/jpeg");
+        fileDownloadService.serve(relativePath, contentType, null, false, request, response);
+    }
 }
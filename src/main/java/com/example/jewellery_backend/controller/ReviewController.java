@@ -1,6 +1,7 @@
 package com.example.jewellery_backend.controller;
 
 
+import com.example.jewellery_backend.dto.ReviewPageDto;
 import com.example.jewellery_backend.dto.ReviewRequestDto;
 import com.example.jewellery_backend.dto.ReviewResponseDto;
 import com.example.jewellery_backend.service.ReviewService;
@@ -26,13 +27,18 @@ public class ReviewController {
     public ResponseEntity<ReviewResponseDto> addReview(@PathVariable Long productId,
                                                        @Valid @RequestBody ReviewRequestDto request) {
         ReviewResponseDto saved = reviewService.addReview(productId, request);
+        // buffered intake: accepted but not stored yet
+        if (saved.getReviewId() == null) return ResponseEntity.accepted().body(saved);
         return ResponseEntity.ok(saved);
     }
 
 
-    // Public: only approved reviews
+    // Public: only approved reviews, one page at a time (sort = newest | highest | lowest)
     @GetMapping
-    public ResponseEntity<List<ReviewResponseDto>> getApprovedReviews(@PathVariable Long productId) {
-        return ResponseEntity.ok(reviewService.getPublicReviewsForProduct(productId));
+    public ResponseEntity<ReviewPageDto> getApprovedReviews(@PathVariable Long productId,
+                                                            @RequestParam(defaultValue = "newest") String sort,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(reviewService.getPublicReviewsForProduct(productId, sort, cursor, limit));
     }
 }
\ No newline at end of file
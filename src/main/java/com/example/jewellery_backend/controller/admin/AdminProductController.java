@@ -1,15 +1,28 @@
 package com.example.jewellery_backend.controller.admin;
 
+import com.example.jewellery_backend.dto.BulkRepriceRequest;
+import com.example.jewellery_backend.dto.BulkRepriceResultDto;
 import com.example.jewellery_backend.dto.CreateUpdateProductRequest;
 import com.example.jewellery_backend.dto.ProductDto;
+import com.example.jewellery_backend.dto.ProductImageDto;
+import com.example.jewellery_backend.dto.ProductImportResultDto;
 import com.example.jewellery_backend.entity.Product;
+import com.example.jewellery_backend.service.ProductImageService;
+import com.example.jewellery_backend.service.ProductImportService;
+import com.example.jewellery_backend.service.ProductRepricingService;
 import com.example.jewellery_backend.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -18,6 +31,9 @@ import java.util.List;
 public class AdminProductController {
 
     private final ProductService productService;
+    private final ProductImageService productImageService;
+    private final ProductImportService productImportService;
+    private final ProductRepricingService productRepricingService;
 
     // ------------------ Product Endpoints ------------------
 
@@ -73,4 +89,63 @@ public class AdminProductController {
         productService.deleteProduct(productId);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Bulk create/update by sku from a CSV (header row with field names) or NDJSON body.
+     * Invalid rows are listed in the result; the other rows are imported.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProductImportResultDto> importProducts(HttpServletRequest request) throws IOException {
+        MediaType type = MediaType.parseMediaType(request.getContentType());
+        ProductImportService.Format format = type.isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+        Charset charset = type.getCharset() != null ? type.getCharset() : StandardCharsets.UTF_8;
+        return ResponseEntity.ok(productImportService.importProducts(request.getInputStream(), format, charset));
+    }
+
+    /**
+     * Set or adjust prices of all products in a category subtree or matching a filter (dryRun = preview only)
+     */
+    @PostMapping("/reprice")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkRepriceResultDto> reprice(@RequestBody BulkRepriceRequest req) {
+        return ResponseEntity.ok(productRepricingService.reprice(req));
+    }
+
+    // ------------------ Image Endpoints ------------------
+
+    /**
+     * Upload an image; thumbnails are generated in the background (renditionStatus PENDING -> READY)
+     */
+    @PostMapping(value = "/{productId}/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProductImageDto> uploadImage(@PathVariable Long productId,
+                                                       @RequestParam("file") MultipartFile file,
+                                                       @RequestParam(required = false) String altText,
+                                                       @RequestParam(defaultValue = "false") boolean isPrimary,
+                                                       @RequestParam(required = false) Integer sortOrder) {
+        ProductImageDto image = productImageService.uploadImage(productId, file, altText, isPrimary, sortOrder);
+        return ResponseEntity.accepted().body(image);
+    }
+
+    /**
+     * List the images of a product, including rendition status
+     */
+    @GetMapping("/{productId}/images")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ProductImageDto>> listImages(@PathVariable Long productId) {
+        return ResponseEntity.ok(productImageService.getImages(productId));
+    }
+
+    /**
+     * Delete an image
+     */
+    @DeleteMapping("/{productId}/images/{imageId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> deleteImage(@PathVariable Long productId, @PathVariable Long imageId) {
+        productImageService.deleteImage(productId, imageId);
+        return ResponseEntity.noContent().build();
+    }
 }
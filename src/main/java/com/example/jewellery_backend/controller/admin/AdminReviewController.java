@@ -1,13 +1,19 @@
 package com.example.jewellery_backend.controller.admin;
 
 
+import com.example.jewellery_backend.dto.AdminReviewRowDto;
+import com.example.jewellery_backend.dto.BulkReviewActionRequest;
+import com.example.jewellery_backend.dto.BulkReviewActionResultDto;
 import com.example.jewellery_backend.dto.ReviewResponseDto;
 import com.example.jewellery_backend.service.ReviewService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 
+import java.time.LocalDate;
 import java.util.List;
 
 
@@ -27,6 +33,22 @@ public class AdminReviewController {
     }
 
 
+    // moderation queue, paged and filtered on the server, e.g. /admin/reviews/queue?approved=false
+    @GetMapping("/queue")
+    public ResponseEntity<Page<AdminReviewRowDto>> queue(
+            @RequestParam(required = false) Boolean approved,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Integer minRating,
+            @RequestParam(required = false) Integer maxRating,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(reviewService.getModerationQueue(approved, productId, minRating, maxRating,
+                from, to, page, size));
+    }
+
+
     // list all reviews for a given product (admin)
     @GetMapping("/product/{productId}")
     public ResponseEntity<List<ReviewResponseDto>> listByProduct(@PathVariable Long productId) {
@@ -48,4 +70,31 @@ public class AdminReviewController {
         reviewService.deleteReview(reviewId);
         return ResponseEntity.noContent().build();
     }
+
+
+    // bulk moderation: body selects reviews by id list or by filter (e.g. all pending from one email)
+    @PostMapping("/bulk/approve")
+    public ResponseEntity<BulkReviewActionResultDto> bulkApprove(@RequestBody BulkReviewActionRequest request) {
+        return ResponseEntity.ok(reviewService.bulkApprove(request));
+    }
+
+
+    @PostMapping("/bulk/reject")
+    public ResponseEntity<BulkReviewActionResultDto> bulkReject(@RequestBody BulkReviewActionRequest request) {
+        return ResponseEntity.ok(reviewService.bulkReject(request));
+    }
+
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkReviewActionResultDto> bulkDelete(@RequestBody BulkReviewActionRequest request) {
+        return ResponseEntity.ok(reviewService.bulkDelete(request));
+    }
+
+
+    // recompute all product rating totals from the reviews table (backfill / repair)
+    @PostMapping("/ratings/rebuild")
+    public ResponseEntity<Void> rebuildRatings() {
+        reviewService.rebuildRatingSummaries();
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
@@ -1,10 +1,9 @@
 package com.example.jewellery_backend.controller.filter;
 
 import com.example.jewellery_backend.dto.Filter.FilterRequest;
-import com.example.jewellery_backend.entity.Product;
+import com.example.jewellery_backend.dto.ProductCardPageDto;
 import com.example.jewellery_backend.service.FilterService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,9 +14,9 @@ public class ProductFilterController {
     @Autowired
     private FilterService filterService; // ⚠️ inject instance, not call static method
 
+    // product cards only; set countMode to APPROXIMATE or NONE to avoid the count query on every page
     @PostMapping("/filter")
-    public ResponseEntity<Page<Product>> filterProducts(@RequestBody FilterRequest filterRequest) {
-        Page<Product> page = filterService.filterProducts(filterRequest);
-        return ResponseEntity.ok(page);
+    public ResponseEntity<ProductCardPageDto> filterProducts(@RequestBody FilterRequest filterRequest) {
+        return ResponseEntity.ok(filterService.filterProductCards(filterRequest));
     }
 }
@@ -0,0 +1,25 @@
+package com.example.jewellery_backend.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of the admin moderation queue; built directly by the query, with the product name joined in.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdminReviewRowDto {
+    private Long reviewId;
+    private Long productId;
+    private String productName;
+    private String reviewerName;
+    private String reviewerEmail;
+    private Integer rating;
+    private String commentText;
+    private LocalDateTime reviewDate;
+    private Boolean isApproved;
+}
@@ -3,11 +3,14 @@ package com.example.jewellery_backend.dto;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.Date;
+
 @Data
 @Builder
 public class AdminUserLoginResponse {
     private String username;
     private String email;
     private String role;
-    private String token; // placeholder for JWT if needed
+    private String token; // signed JWT, sent as "Authorization: Bearer <token>"
+    private Date expiresAt;
 }
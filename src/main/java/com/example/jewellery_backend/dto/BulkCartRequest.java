@@ -0,0 +1,15 @@
+package com.example.jewellery_backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkCartRequest {
+    // applied in order, all or nothing
+    private List<CartOperationDto> operations;
+}
@@ -0,0 +1,31 @@
+package com.example.jewellery_backend.dto;
+
+import com.example.jewellery_backend.dto.Filter.FilterRequest;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Bulk price change. Products are selected either by categoryId (the category and everything below it)
+ * or by filter; set dryRun to get the count and a preview without changing anything.
+ * To resume a run that stopped part way, send the same request with afterProductId = the result's lastProductId.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkRepriceRequest {
+
+    public enum Mode {
+        SET_BASE_PRICE,             // basePrice = value
+        ADJUST_BASE_PRICE_PERCENT,  // basePrice += basePrice * value / 100, e.g. 5 or -10
+        SET_MARKUP                  // markupPercentage = value
+    }
+
+    private Mode mode;
+    private BigDecimal value;
+    private Long categoryId;
+    private FilterRequest filter;
+    private boolean dryRun;
+    private Long afterProductId;    // only products with a higher id; null = from the start
+}
@@ -0,0 +1,39 @@
+package com.example.jewellery_backend.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk price change; for a dry run updated is 0 and preview shows what would change.
+ * When complete is false a chunk failed: products up to lastProductId were changed, the rest were not.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkRepriceResultDto {
+    private int matched;
+    private int updated;
+    private boolean dryRun;
+    private boolean complete;
+    private Long lastProductId;     // highest id of the products already changed
+    private String error;
+    @Builder.Default
+    private List<Item> preview = new ArrayList<>();  // first products by id
+
+    @Getter
+    @AllArgsConstructor
+    public static class Item {
+        private Long productId;
+        private String sku;
+        private String productName;
+        private BigDecimal oldBasePrice;
+        private BigDecimal newBasePrice;
+        private BigDecimal oldMarkupPercentage;
+        private BigDecimal newMarkupPercentage;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.jewellery_backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Selects the reviews for a bulk moderation action: either explicit ids,
+ * or a filter (at least one of reviewerEmail / productId / isApproved).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkReviewActionRequest {
+    private List<Long> reviewIds;
+
+    // filter, used when reviewIds is empty
+    private String reviewerEmail;
+    private Long productId;
+    private Boolean isApproved;
+}
@@ -0,0 +1,13 @@
+package com.example.jewellery_backend.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkReviewActionResultDto {
+    private int matched;  // reviews selected by the request
+    private int affected; // reviews actually changed or deleted
+}
@@ -0,0 +1,32 @@
+package com.example.jewellery_backend.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * One cart line that no longer matches the product as it is now.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartLineChangeDto {
+
+    public enum ChangeType {
+        PRODUCT_REMOVED,
+        INACTIVE,
+        PRICE_CHANGED,
+        INSUFFICIENT_STOCK
+    }
+
+    private String itemKey;
+    private Long productId;
+    private String productName;
+    private ChangeType type;
+    private BigDecimal oldUnitPrice;
+    private BigDecimal newUnitPrice;
+    private Integer requestedQuantity;
+    private Integer availableQuantity;
+}
@@ -0,0 +1,27 @@
+package com.example.jewellery_backend.dto;
+
+import lombok.*;
+
+/**
+ * One step of a bulk cart change.
+ * ADD uses productId / attributeValueId / quantity, UPDATE uses itemKey / quantity, REMOVE uses itemKey.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartOperationDto {
+
+    public enum OperationType {
+        ADD,
+        UPDATE,
+        REMOVE
+    }
+
+    private OperationType op;
+    private Long productId;
+    private Long attributeValueId; // optional
+    private String itemKey;
+    private Integer quantity;
+}
@@ -0,0 +1,22 @@
+package com.example.jewellery_backend.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Result of checking the cart against current prices, availability and stock.
+ * cartTotal is the total at current prices; cart is the cart after price changes were applied.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartValidationResultDto {
+    private boolean valid;
+    private List<CartLineChangeDto> changes;
+    private BigDecimal cartTotal;
+    private CartResponseDto cart;
+}
@@ -0,0 +1,19 @@
+package com.example.jewellery_backend.dto;
+
+import lombok.*;
+
+/**
+ * Result of comparing categories_closure with the closure implied by categories.parent_category_id.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryClosureCheckDto {
+    private long missingPaths;      // implied by parent links but not in the table (or with another depth)
+    private long unexpectedPaths;   // in the table but not implied by parent links
+    private long parentCycles;      // categories that are their own ancestor
+    private boolean consistent;
+    private boolean repaired;       // closure rebuilt from the parent links by this call
+}
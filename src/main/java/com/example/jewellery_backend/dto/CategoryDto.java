@@ -15,11 +15,17 @@ public class CategoryDto {
     private String categoryName;
     private String slug;
     private Boolean isActive;
+    private Integer productCount;           // active products in this category and its subcategories
+    private Integer directProductCount;     // active products linked to this category itself
 
     // For hierarchical structure (optional)
+    private Long parentCategoryId;              // parent on create/update, null = top level
     private CategoryDto parentId;                   // To reference parent category
     private List<CategoryDto> children;      // For nested subcategories
 
     public CategoryDto(Long categoryId, String categoryName, String slug) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.slug = slug;
     }
 }
@@ -0,0 +1,20 @@
+package com.example.jewellery_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One node of the public category tree. Instances are shared by all requests and never modified.
+ */
+@Getter
+@AllArgsConstructor
+public class CategoryTreeNodeDto {
+    private final Long categoryId;
+    private final String categoryName;
+    private final String slug;
+    private final int productCount;         // active products in this category and below
+    private final int directProductCount;   // active products linked to this category itself
+    private final List<CategoryTreeNodeDto> children;
+}
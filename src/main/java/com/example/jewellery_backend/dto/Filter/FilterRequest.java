@@ -7,6 +7,13 @@ import java.util.Map;
 
 @Data
 public class FilterRequest {
+
+    public enum CountMode {
+        EXACT,        // count query on every request
+        APPROXIMATE,  // count cached per filter for a short time
+        NONE          // no total, only hasNext
+    }
+
     private Double minPrice;
     private Double maxPrice;
     // list of category ids to filter
@@ -16,4 +23,5 @@ public class FilterRequest {
     private Map<String, List<String>> attributes;
     private Integer page = 0;
     private Integer size = 20;
+    private CountMode countMode = CountMode.EXACT;
 }
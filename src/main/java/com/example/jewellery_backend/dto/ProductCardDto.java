@@ -0,0 +1,33 @@
+package com.example.jewellery_backend.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * What a product listing shows per product; built from ProductSummary.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductCardDto {
+    private Long productId;
+    private String productName;
+    private BigDecimal price;
+    private String imageUrl;     // thumbnail once renditions exist
+    private String imageAlt;
+    private boolean inStock;
+
+    public static ProductCardDto fromSummary(ProductSummary s) {
+        return ProductCardDto.builder()
+                .productId(s.getProductId())
+                .productName(s.getProductName())
+                .price(s.getPrice())
+                .imageUrl(s.getImageUrl())
+                .imageAlt(s.getImageAlt())
+                .inStock(s.getStockQuantity() > 0)
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.jewellery_backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One page of filtered products. totalElements is null when countMode is NONE, and may be up to
+ * a minute old when totalApproximate is true.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductCardPageDto {
+    private List<ProductCardDto> items;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    private Long totalElements;
+    private boolean totalApproximate;
+}
@@ -42,4 +42,7 @@ public class ProductDto {
     private List<ProductImageDto> images;
     private List<ProductCategoryDto> productCategories;
     private List<ProductAttributeValueDto> attributeValues;
+
+    // approved-review totals, read from product_rating_summary
+    private RatingSummaryDto rating;
 }
@@ -16,4 +16,12 @@ public class ProductImageDto {
     private String altText;
     private Boolean isPrimary;
     private Integer sortOrder;
+
+    // resized versions of uploaded images (null until generated, or for external URLs)
+    private String thumbUrl;
+    private String mediumUrl;
+    private String largeUrl;
+    private Integer width;
+    private Integer height;
+    private String renditionStatus;
 }
@@ -0,0 +1,32 @@
+package com.example.jewellery_backend.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk product import. Rows listed in errors were skipped; all other rows were written.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportResultDto {
+    private int rows;
+    private int inserted;
+    private int updated;
+    private int failed;
+    @Builder.Default
+    private List<RowError> errors = new ArrayList<>();  // at most the first 1000
+    private boolean errorsTruncated;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private int line;       // line of the row in the file (CSV header is line 1)
+        private String sku;
+        private String message;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.jewellery_backend.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Compact, immutable view of a product used by the cart.
+ * Cached by ProductSummaryCache.
+ */
+@Value
+@Builder
+public class ProductSummary {
+    Long productId;
+    String productName;
+    BigDecimal price;
+    String imageUrl;
+    String imageAlt;
+    boolean active;
+    int stockQuantity;
+}
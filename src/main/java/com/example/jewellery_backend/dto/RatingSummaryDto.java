@@ -0,0 +1,44 @@
+package com.example.jewellery_backend.dto;
+
+import com.example.jewellery_backend.entity.ProductRatingSummary;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Approved-review rating totals of a product.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RatingSummaryDto {
+
+    private Long productId;
+    private long reviewCount;
+    private long ratingSum;
+    private BigDecimal averageRating; // null when there are no approved reviews
+
+    // histogram[0] = number of 1-star reviews ... histogram[4] = 5-star
+    private long[] histogram;
+
+    public static RatingSummaryDto fromEntity(ProductRatingSummary s) {
+        return RatingSummaryDto.builder()
+                .productId(s.getProductId())
+                .reviewCount(s.getReviewCount())
+                .ratingSum(s.getRatingSum())
+                .averageRating(s.getReviewCount() > 0
+                        ? BigDecimal.valueOf(s.getRatingSum()).divide(BigDecimal.valueOf(s.getReviewCount()), 2, RoundingMode.HALF_UP)
+                        : null)
+                .histogram(new long[]{s.getRating1(), s.getRating2(), s.getRating3(), s.getRating4(), s.getRating5()})
+                .build();
+    }
+
+    public static RatingSummaryDto empty(Long productId) {
+        return RatingSummaryDto.builder()
+                .productId(productId)
+                .histogram(new long[5])
+                .build();
+    }
+}
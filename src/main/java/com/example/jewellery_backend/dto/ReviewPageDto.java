@@ -0,0 +1,20 @@
+package com.example.jewellery_backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One page of reviews. Pass nextCursor back as the cursor parameter to get the following page;
+ * it is null on the last page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReviewPageDto {
+    private List<ReviewResponseDto> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
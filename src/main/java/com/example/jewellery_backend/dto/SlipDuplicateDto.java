@@ -0,0 +1,21 @@
+package com.example.jewellery_backend.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Another order's slip with identical content (same checksum).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlipDuplicateDto {
+    private Long slipId;
+    private Long orderId;
+    private String fileName;
+    private LocalDateTime uploadedAt;
+    private Boolean verified;
+}
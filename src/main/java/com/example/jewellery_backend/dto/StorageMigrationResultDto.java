@@ -0,0 +1,20 @@
+package com.example.jewellery_backend.dto;
+
+import lombok.*;
+
+/**
+ * Progress of one slip storage migration run. Pass nextAfterId to the next call until done is true.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StorageMigrationResultDto {
+    private int scanned;
+    private int migrated;
+    private int missing;     // file no longer on disk, slip left as it is
+    private int failed;      // could not be copied or was changed meanwhile, retried by a later run
+    private Long nextAfterId;
+    private boolean done;
+}
@@ -2,6 +2,7 @@ package com.example.jewellery_backend.entity;
 
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -10,6 +11,7 @@ import lombok.*;
 
 /**
  * Entity representing a shopping cart per session.
+ * sessionId holds the cart token when carts are stored persistently.
  */
 @Entity
 @Table(name = "cart_header")
@@ -35,8 +37,15 @@ public class CartHeader {
     @Column(name = "updated_at", columnDefinition = "TIMESTAMP")
     private LocalDateTime updatedAt;
 
+    // bumped on every write so other nodes can tell their cached copy is stale
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "cartHeader", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("cartItemId ASC")
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    private List<CartItem> items;
+    @Builder.Default
+    private List<CartItem> items = new ArrayList<>();
 }
@@ -1,6 +1,7 @@
 package com.example.jewellery_backend.entity;
 
 import jakarta.persistence.*;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import org.hibernate.annotations.CreationTimestamp;
@@ -13,7 +14,7 @@ import lombok.*;
  */
 @Entity
 @Table(name = "cart_items",
-        uniqueConstraints = {@UniqueConstraint(columnNames = {"cart_header_id", "product_id"})}
+        uniqueConstraints = {@UniqueConstraint(columnNames = {"cart_header_id", "product_id", "attribute_key"})}
 )
 @Data
 @NoArgsConstructor
@@ -38,10 +39,22 @@ public class CartItem {
     @EqualsAndHashCode.Exclude
     private Product product;
 
+    @Column(name = "attribute_value_id")
+    private Long attributeValueId; // nullable, same as the session cart line
+
+    // filled by the database: attribute_value_id or 0, so lines without an attribute are unique too
+    @Column(name = "attribute_key", insertable = false, updatable = false,
+            columnDefinition = "INT GENERATED ALWAYS AS (IFNULL(attribute_value_id, 0)) STORED NOT NULL")
+    private Long attributeKey;
+
     @Column(name = "quantity", nullable = false)
     @Builder.Default
     private Integer quantity = 1;
 
+    // price captured when the line was added
+    @Column(name = "unit_price", precision = 12, scale = 2)
+    private BigDecimal unitPrice;
+
     @CreationTimestamp
     @Column(name = "added_at", updatable = false, columnDefinition = "TIMESTAMP")
     private LocalDateTime addedAt;
@@ -38,4 +38,35 @@ public class ProductImage {
     @Column(name = "sort_order")
     @Builder.Default
     private Integer sortOrder = 0;
+
+    // ---- uploaded images: original file and fixed-width renditions (null for external URLs) ----
+
+    // relative path of the uploaded original under the upload dir
+    @Column(name = "original_path", length = 500)
+    private String originalPath;
+
+    @Column(name = "thumb_url", length = 500)
+    private String thumbUrl;    // 200 px wide
+
+    @Column(name = "medium_url", length = 500)
+    private String mediumUrl;   // 600 px wide
+
+    @Column(name = "large_url", length = 500)
+    private String largeUrl;    // 1200 px wide
+
+    @Column(name = "width")
+    private Integer width;
+
+    @Column(name = "height")
+    private Integer height;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rendition_status", length = 20)
+    private RenditionStatus renditionStatus;
+
+    public enum RenditionStatus {
+        PENDING,
+        READY,
+        FAILED
+    }
 }
@@ -0,0 +1,54 @@
+package com.example.jewellery_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running totals of the approved reviews of one product, so listings can show ratings
+ * without reading the reviews table. Maintained by ReviewServiceImpl; rows are only
+ * changed through ProductRatingSummaryRepository.applyDelta.
+ */
+@Entity
+@Table(name = "product_rating_summary")
+@Data
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class ProductRatingSummary {
+
+    @Id
+    @EqualsAndHashCode.Include
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    // histogram: number of approved reviews per star rating
+    @Column(name = "rating_1", nullable = false)
+    private long rating1;
+
+    @Column(name = "rating_2", nullable = false)
+    private long rating2;
+
+    @Column(name = "rating_3", nullable = false)
+    private long rating3;
+
+    @Column(name = "rating_4", nullable = false)
+    private long rating4;
+
+    @Column(name = "rating_5", nullable = false)
+    private long rating5;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
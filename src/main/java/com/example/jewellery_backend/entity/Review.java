@@ -10,7 +10,13 @@ import lombok.*;
  * Entity representing product reviews.
  */
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        // keyset pages of approved reviews per product (newest first / by rating)
+        @Index(name = "idx_reviews_product_approved_date", columnList = "product_id, is_approved, review_date, review_id"),
+        @Index(name = "idx_reviews_product_approved_rating", columnList = "product_id, is_approved, rating, review_date, review_id"),
+        // admin moderation queue (e.g. pending, newest first)
+        @Index(name = "idx_reviews_approved_date", columnList = "is_approved, review_date")
+})
 @Data
 @Getter
 @Setter
@@ -8,7 +8,10 @@ import java.time.LocalDateTime;
  * Entity representing a payment slip uploaded for an order.
  */
 @Entity
-@Table(name = "slips")
+@Table(name = "slips", indexes = {
+        // find the same slip content reused across orders
+        @Index(name = "idx_slips_checksum", columnList = "checksum")
+})
 @Data
 @Getter
 @Setter
@@ -47,6 +50,7 @@ public class Slip {
     @Column(name = "file_size", nullable = false)
     private Long fileSize;
 
+    // SHA-256 of the file content (hex)
     @Column(name = "checksum", length = 128)
     private String checksum;
 
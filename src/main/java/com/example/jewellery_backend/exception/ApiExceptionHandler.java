@@ -1,5 +1,6 @@
 package com.example.jewellery_backend.exception;
 
+import com.example.jewellery_backend.dto.CartValidationResultDto;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -20,6 +21,9 @@ import java.util.stream.Collectors;
  *  - ResourceNotFoundException -> 404
  *  - InsufficientStockException -> 400
  *  - IllegalArgumentException -> 400
+ *  - CartValidationException -> 409 with the changed cart lines
+ *  - ReviewQueueFullException -> 503 with Retry-After
+ *  - TooManyLoginAttemptsException -> 429 with Retry-After
  *  - MethodArgumentNotValidException -> 400 with field-level messages
  *  - HttpMessageNotReadableException -> 400 (malformed JSON)
  *  - Exception -> 500
@@ -60,6 +64,37 @@ public class ApiExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(CartValidationException.class)
+    public ResponseEntity<CartValidationResultDto> handleCartValidation(CartValidationException ex) {
+        return new ResponseEntity<>(ex.getResult(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ReviewQueueFullException.class)
+    public ResponseEntity<ApiError> handleReviewQueueFull(ReviewQueueFullException ex, HttpServletRequest request) {
+        ApiError error = new ApiError(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    @ExceptionHandler(TooManyLoginAttemptsException.class)
+    public ResponseEntity<ApiError> handleTooManyLoginAttempts(TooManyLoginAttemptsException ex, HttpServletRequest request) {
+        ApiError error = new ApiError(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> handleValidationExceptions(MethodArgumentNotValidException ex, HttpServletRequest request) {
         BindingResult br = ex.getBindingResult();
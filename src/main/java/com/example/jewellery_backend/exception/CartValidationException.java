@@ -0,0 +1,19 @@
+package com.example.jewellery_backend.exception;
+
+import com.example.jewellery_backend.dto.CartValidationResultDto;
+
+/**
+ * Thrown at checkout when the cart no longer matches current prices or stock.
+ */
+public class CartValidationException extends CartException {
+    private final CartValidationResultDto result;
+
+    public CartValidationException(CartValidationResultDto result) {
+        super("Cart has changed since it was last viewed, please review it");
+        this.result = result;
+    }
+
+    public CartValidationResultDto getResult() {
+        return result;
+    }
+}
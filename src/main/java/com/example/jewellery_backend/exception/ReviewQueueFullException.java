@@ -0,0 +1,8 @@
+package com.example.jewellery_backend.exception;
+
+/**
+ * The buffered review queue is full; the client should retry later.
+ */
+public class ReviewQueueFullException extends RuntimeException {
+    public ReviewQueueFullException(String msg) { super(msg); }
+}
@@ -0,0 +1,18 @@
+package com.example.jewellery_backend.exception;
+
+/**
+ * Login refused without checking the password: locked out after failed attempts,
+ * or the password checks are saturated. The client may retry after retryAfterSeconds.
+ */
+public class TooManyLoginAttemptsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyLoginAttemptsException(String msg, long retryAfterSeconds) {
+        super(msg);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
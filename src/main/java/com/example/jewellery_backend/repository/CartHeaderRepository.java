@@ -0,0 +1,31 @@
+package com.example.jewellery_backend.repository;
+
+import com.example.jewellery_backend.entity.CartHeader;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CartHeaderRepository extends JpaRepository<CartHeader, Long> {
+
+    // Load a cart with its lines in one query
+    @EntityGraph(attributePaths = {"items"})
+    Optional<CartHeader> findBySessionId(String sessionId);
+
+    // Header only, locked until the writing transaction ends (lines load lazily, products stay unlocked)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM CartHeader h WHERE h.sessionId = :sessionId")
+    Optional<CartHeader> findForUpdateBySessionId(@Param("sessionId") String sessionId);
+
+    // Cheap staleness check for the in-memory hot tier
+    @Query("SELECT h.version FROM CartHeader h WHERE h.sessionId = :sessionId")
+    Optional<Long> findVersionBySessionId(@Param("sessionId") String sessionId);
+
+    void deleteBySessionId(String sessionId);
+}
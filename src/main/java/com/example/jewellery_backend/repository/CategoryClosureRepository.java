@@ -3,6 +3,7 @@ package com.example.jewellery_backend.repository;
 import com.example.jewellery_backend.entity.CategoryClosure;
 import com.example.jewellery_backend.entity.CategoryClosureId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -22,4 +23,83 @@ public interface CategoryClosureRepository extends JpaRepository<CategoryClosure
 
     // Find direct parent (depth = 1)
     CategoryClosure findByDescendantCategoryIdAndDepth(Long descendantId, Integer depth);
-}
\ No newline at end of file
+
+    // All parent -> child edges of the hierarchy as {parentId, childId}
+    @Query("SELECT cc.ancestor.categoryId, cc.descendant.categoryId FROM CategoryClosure cc WHERE cc.depth = 1")
+    List<Object[]> findParentChildPairs();
+
+    // ---------------- Maintenance (set-based, one statement each) ----------------
+
+    // new category: a copy of every path to its parent, extended by one, plus the self row
+    @Modifying
+    @Query(value = "INSERT INTO categories_closure (ancestor_id, descendant_id, depth) " +
+            "SELECT cc.ancestor_id, :id, cc.depth + 1 FROM categories_closure cc WHERE cc.descendant_id = :parentId " +
+            "UNION ALL SELECT :id, :id, 0", nativeQuery = true)
+    int insertNode(@Param("id") Long id, @Param("parentId") Long parentId);
+
+    // true if candidate is the category itself or lies in its subtree (moving under it would make a cycle)
+    @Query(value = "SELECT COUNT(*) FROM categories_closure WHERE ancestor_id = :id AND descendant_id = :candidate",
+            nativeQuery = true)
+    long countInSubtree(@Param("id") Long id, @Param("candidate") Long candidate);
+
+    // subtree move, step 1: cut every path from outside the subtree into it
+    @Modifying
+    @Query(value = "DELETE cc FROM categories_closure cc " +
+            "JOIN categories_closure sub ON sub.descendant_id = cc.descendant_id AND sub.ancestor_id = :id " +
+            "LEFT JOIN categories_closure inside ON inside.ancestor_id = :id AND inside.descendant_id = cc.ancestor_id " +
+            "WHERE inside.ancestor_id IS NULL", nativeQuery = true)
+    int detachSubtree(@Param("id") Long id);
+
+    // subtree move, step 2: every ancestor of the new parent x every node of the subtree
+    @Modifying
+    @Query(value = "INSERT INTO categories_closure (ancestor_id, descendant_id, depth) " +
+            "SELECT p.ancestor_id, s.descendant_id, p.depth + s.depth + 1 " +
+            "FROM categories_closure p JOIN categories_closure s ON s.ancestor_id = :id " +
+            "WHERE p.descendant_id = :parentId", nativeQuery = true)
+    int attachSubtree(@Param("id") Long id, @Param("parentId") Long parentId);
+
+    // removing a node: paths that ran through it become one shorter (its children move up to its parent)
+    @Modifying
+    @Query(value = "UPDATE categories_closure cc " +
+            "JOIN categories_closure up ON up.descendant_id = :id AND up.ancestor_id = cc.ancestor_id AND up.depth > 0 " +
+            "JOIN categories_closure down ON down.ancestor_id = :id AND down.descendant_id = cc.descendant_id AND down.depth > 0 " +
+            "SET cc.depth = cc.depth - 1", nativeQuery = true)
+    int shortenPathsThrough(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "DELETE FROM categories_closure WHERE ancestor_id = :id OR descendant_id = :id", nativeQuery = true)
+    int deleteNode(@Param("id") Long id);
+
+    // ---------------- Consistency check / repair ----------------
+
+    // the closure as implied by categories.parent_category_id (depth-capped so a parent cycle cannot run away)
+    String EXPECTED_PATHS = "WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (" +
+            "SELECT category_id, category_id, 0 FROM categories " +
+            "UNION ALL SELECT p.ancestor_id, c.category_id, p.depth + 1 FROM paths p " +
+            "JOIN categories c ON c.parent_category_id = p.descendant_id WHERE p.depth < 64) ";
+
+    @Query(value = EXPECTED_PATHS + "SELECT COUNT(*) FROM paths p LEFT JOIN categories_closure cc " +
+            "ON cc.ancestor_id = p.ancestor_id AND cc.descendant_id = p.descendant_id AND cc.depth = p.depth " +
+            "WHERE cc.ancestor_id IS NULL", nativeQuery = true)
+    long countMissingPaths();
+
+    @Query(value = EXPECTED_PATHS + "SELECT COUNT(*) FROM categories_closure cc LEFT JOIN paths p " +
+            "ON p.ancestor_id = cc.ancestor_id AND p.descendant_id = cc.descendant_id AND p.depth = cc.depth " +
+            "WHERE p.ancestor_id IS NULL", nativeQuery = true)
+    long countUnexpectedPaths();
+
+    // categories that are their own ancestor through parent links
+    @Query(value = EXPECTED_PATHS + "SELECT COUNT(DISTINCT ancestor_id) FROM paths " +
+            "WHERE ancestor_id = descendant_id AND depth > 0", nativeQuery = true)
+    long countParentCycles();
+
+    @Modifying
+    @Query(value = "DELETE FROM categories_closure", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = "INSERT INTO categories_closure (ancestor_id, descendant_id, depth) " + EXPECTED_PATHS +
+            "SELECT ancestor_id, descendant_id, MIN(depth) FROM paths GROUP BY ancestor_id, descendant_id",
+            nativeQuery = true)
+    int insertFromParentLinks();
+}
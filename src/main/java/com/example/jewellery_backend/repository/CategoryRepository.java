@@ -1,12 +1,37 @@
 package com.example.jewellery_backend.repository;
 
 import com.example.jewellery_backend.entity.Category;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findByCategoryName(String categoryName);
+
+    // hierarchy changes lock the categories involved, in id order so concurrent moves cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Category c WHERE c.categoryId IN :ids ORDER BY c.categoryId")
+    List<Category> findAllForUpdateByCategoryIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.categoryId FROM Category c WHERE c.categoryId IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE categories SET parent_category_id = :newParentId WHERE parent_category_id = :id",
+            nativeQuery = true)
+    int reparentChildren(@Param("id") Long id, @Param("newParentId") Long newParentId);
+
+    // native, so the children collection (cascade ALL) is not loaded and removed with it
+    @Modifying(clearAutomatically = true)
+    @Query(value = "DELETE FROM categories WHERE category_id = :id", nativeQuery = true)
+    int deleteRow(@Param("id") Long id);
 }
@@ -3,6 +3,7 @@ package com.example.jewellery_backend.repository;
 import com.example.jewellery_backend.entity.ProductCategory;
 import com.example.jewellery_backend.entity.ProductCategoryId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.Set;
@@ -14,4 +15,9 @@ public interface ProductCategoryRepository extends JpaRepository<ProductCategory
     List<ProductCategory> findByIdCategoryId(Long categoryId);
     List<ProductCategory> findByIdProductId(Long productId);
     List<ProductCategory> findByIdCategoryIdIn(Set<Long> categoryIds);
+
+    // {productId, categoryId} links of all active products
+    @Query("SELECT pc.id.productId, pc.id.categoryId FROM ProductCategory pc " +
+            "WHERE pc.product.isActive IS NULL OR pc.product.isActive = true")
+    List<Object[]> findActiveProductLinks();
 }
@@ -2,9 +2,13 @@ package com.example.jewellery_backend.repository;
 
 import com.example.jewellery_backend.entity.ProductImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -15,4 +19,27 @@ public interface ProductImageRepository extends JpaRepository<ProductImage, Long
     Optional<ProductImage> findFirstByProduct_ProductIdAndIsPrimaryTrue(Long productId);
     // fallback: get first by product sorted by sortOrder
     List<ProductImage> findByProduct_ProductIdOrderBySortOrderAsc(Long productId);
+    // images of several products at once, in sort order
+    List<ProductImage> findByProduct_ProductIdInOrderBySortOrderAsc(Collection<Long> productIds);
+    // uploads whose renditions were not finished (e.g. interrupted by a restart)
+    List<ProductImage> findByRenditionStatus(ProductImage.RenditionStatus status);
+
+    // images using any of these files, as original (path) or as any of the URLs; rows are {original, image, thumb, medium, large}
+    @Query("SELECT i.originalPath, i.imageUrl, i.thumbUrl, i.mediumUrl, i.largeUrl FROM ProductImage i " +
+            "WHERE i.originalPath IN :paths OR i.imageUrl IN :urls OR i.thumbUrl IN :urls " +
+            "OR i.mediumUrl IN :urls OR i.largeUrl IN :urls")
+    List<Object[]> findReferencing(@Param("paths") Collection<String> paths, @Param("urls") Collection<String> urls);
+
+    @Modifying
+    @Query("UPDATE ProductImage i SET i.thumbUrl = :thumb, i.mediumUrl = :medium, i.largeUrl = :large, " +
+            "i.width = :width, i.height = :height, " +
+            "i.renditionStatus = com.example.jewellery_backend.entity.ProductImage.RenditionStatus.READY " +
+            "WHERE i.imageId = :imageId")
+    int markRenditionsReady(@Param("imageId") Long imageId, @Param("thumb") String thumb,
+                            @Param("medium") String medium, @Param("large") String large,
+                            @Param("width") int width, @Param("height") int height);
+
+    @Modifying
+    @Query("UPDATE ProductImage i SET i.renditionStatus = :status WHERE i.imageId = :imageId")
+    int markRenditionStatus(@Param("imageId") Long imageId, @Param("status") ProductImage.RenditionStatus status);
 }
@@ -0,0 +1,39 @@
+package com.example.jewellery_backend.repository;
+
+import com.example.jewellery_backend.entity.ProductRatingSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductRatingSummaryRepository extends JpaRepository<ProductRatingSummary, Long> {
+
+    // Adds the deltas in the database (creating the row if needed), so concurrent updates never overwrite each other
+    @Modifying
+    @Query(value = "INSERT INTO product_rating_summary " +
+            "(product_id, review_count, rating_sum, rating_1, rating_2, rating_3, rating_4, rating_5, updated_at) " +
+            "VALUES (:productId, :count, :sum, :r1, :r2, :r3, :r4, :r5, NOW()) " +
+            "ON DUPLICATE KEY UPDATE review_count = review_count + :count, rating_sum = rating_sum + :sum, " +
+            "rating_1 = rating_1 + :r1, rating_2 = rating_2 + :r2, rating_3 = rating_3 + :r3, " +
+            "rating_4 = rating_4 + :r4, rating_5 = rating_5 + :r5, updated_at = NOW()",
+            nativeQuery = true)
+    void applyDelta(@Param("productId") Long productId, @Param("count") long count, @Param("sum") long sum,
+                    @Param("r1") long r1, @Param("r2") long r2, @Param("r3") long r3,
+                    @Param("r4") long r4, @Param("r5") long r5);
+
+    @Modifying
+    @Query(value = "DELETE FROM product_rating_summary", nativeQuery = true)
+    void deleteAllRows();
+
+    // Recomputes every row from the approved reviews (backfill / repair)
+    @Modifying
+    @Query(value = "INSERT INTO product_rating_summary " +
+            "(product_id, review_count, rating_sum, rating_1, rating_2, rating_3, rating_4, rating_5, updated_at) " +
+            "SELECT product_id, COUNT(*), SUM(rating), SUM(rating = 1), SUM(rating = 2), SUM(rating = 3), " +
+            "SUM(rating = 4), SUM(rating = 5), NOW() " +
+            "FROM reviews WHERE is_approved = TRUE GROUP BY product_id",
+            nativeQuery = true)
+    int insertFromApprovedReviews();
+}
@@ -1,20 +1,67 @@
 package com.example.jewellery_backend.repository;
 
 import com.example.jewellery_backend.entity.Product;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     @EntityGraph(attributePaths = {"productCategories", "productCategories.category"})
     List<Product> findAll();
-}
 
+    // checkout: locks the rows whose stock is decremented; ordered by id so concurrent checkouts lock in the same order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.productId IN :ids ORDER BY p.productId")
+    List<Product> findAllForUpdateByProductIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.productId FROM Product p")
+    List<Long> findAllProductIds();
+
+    // {sku, productId} of the products that exist among the given skus
+    @Query("SELECT p.sku, p.productId FROM Product p WHERE p.sku IN :skus")
+    List<Object[]> findIdsBySkuIn(@Param("skus") Collection<String> skus);
 
+    // products linked to the category or to any category below it
+    @Query("SELECT DISTINCT pc.id.productId FROM ProductCategory pc, CategoryClosure cc " +
+            "WHERE cc.descendant.categoryId = pc.id.categoryId AND cc.ancestor.categoryId = :categoryId " +
+            "ORDER BY pc.id.productId")
+    List<Long> findIdsInCategorySubtree(@Param("categoryId") Long categoryId);
 
+    // {productId, sku, productName, basePrice, markupPercentage}
+    @Query("SELECT p.productId, p.sku, p.productName, p.basePrice, p.markupPercentage FROM Product p " +
+            "WHERE p.productId IN :ids ORDER BY p.productId")
+    List<Object[]> findPricesByProductIdIn(@Param("ids") Collection<Long> ids);
 
+    @Query("SELECT MAX(p.basePrice) FROM Product p WHERE p.productId IN :ids")
+    BigDecimal findMaxBasePrice(@Param("ids") Collection<Long> ids);
 
+    // ---- bulk repricing, one statement per chunk of ids ----
 
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE products SET base_price = :price WHERE product_id IN (:ids)", nativeQuery = true)
+    int setBasePrice(@Param("ids") Collection<Long> ids, @Param("price") BigDecimal price);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE products SET base_price = ROUND(base_price * (100 + :percent) / 100, 2) " +
+            "WHERE product_id IN (:ids)", nativeQuery = true)
+    int adjustBasePrice(@Param("ids") Collection<Long> ids, @Param("percent") BigDecimal percent);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE products SET markup_percentage = :markup WHERE product_id IN (:ids)", nativeQuery = true)
+    int setMarkupPercentage(@Param("ids") Collection<Long> ids, @Param("markup") BigDecimal markup);
+}
@@ -1,10 +1,21 @@
 package com.example.jewellery_backend.repository;
 
 import com.example.jewellery_backend.entity.Review;
+import jakarta.persistence.LockModeType;
+import com.example.jewellery_backend.dto.AdminReviewRowDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
@@ -17,5 +28,95 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     // Get all reviews for a product, ordered by reviewDate descending
     List<Review> findByProduct_ProductIdOrderByReviewDateDesc(Long productId);
-}
 
+    // Approves only if still pending; returns 0 when another request approved it first
+    @Modifying
+    @Query("UPDATE Review r SET r.isApproved = true WHERE r.reviewId = :reviewId AND r.isApproved = false")
+    int approveIfPending(@Param("reviewId") Long reviewId);
+
+    // Locks the review so its approval state cannot change before it is deleted
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Review r WHERE r.reviewId = :reviewId")
+    Optional<Review> findForUpdateById(@Param("reviewId") Long reviewId);
+
+    // ---- Keyset pages of approved reviews: rows strictly after the cursor in the sort order ----
+
+    @Query("SELECT r FROM Review r WHERE r.product.productId = :productId AND r.isApproved = true " +
+            "AND (r.reviewDate < :date OR (r.reviewDate = :date AND r.reviewId < :id)) " +
+            "ORDER BY r.reviewDate DESC, r.reviewId DESC")
+    List<Review> findApprovedNewestAfter(@Param("productId") Long productId, @Param("date") LocalDateTime date,
+                                         @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT r FROM Review r WHERE r.product.productId = :productId AND r.isApproved = true " +
+            "AND (r.rating < :rating OR (r.rating = :rating AND (r.reviewDate < :date " +
+            "OR (r.reviewDate = :date AND r.reviewId < :id)))) " +
+            "ORDER BY r.rating DESC, r.reviewDate DESC, r.reviewId DESC")
+    List<Review> findApprovedHighestAfter(@Param("productId") Long productId, @Param("rating") int rating,
+                                          @Param("date") LocalDateTime date, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT r FROM Review r WHERE r.product.productId = :productId AND r.isApproved = true " +
+            "AND (r.rating > :rating OR (r.rating = :rating AND (r.reviewDate < :date " +
+            "OR (r.reviewDate = :date AND r.reviewId < :id)))) " +
+            "ORDER BY r.rating ASC, r.reviewDate DESC, r.reviewId DESC")
+    List<Review> findApprovedLowestAfter(@Param("productId") Long productId, @Param("rating") int rating,
+                                         @Param("date") LocalDateTime date, @Param("id") Long id, Pageable pageable);
+
+    // ---- Bulk moderation ----
+
+    // What a moderation action needs to know about a review to adjust the rating totals
+    interface ModerationRow {
+        Long getReviewId();
+        Long getProductId();
+        Integer getRating();
+        Boolean getApproved();
+    }
+
+    // Locks the selected rows so their approval state cannot change until the bulk write commits
+    @Query(value = "SELECT review_id AS reviewId, product_id AS productId, rating, is_approved AS approved " +
+            "FROM reviews WHERE review_id IN (:ids) FOR UPDATE", nativeQuery = true)
+    List<ModerationRow> lockModerationRowsByIds(@Param("ids") Collection<Long> ids);
+
+    // at most :limit rows are locked; callers pass their maximum + 1 to detect a filter that matches too many
+    @Query(value = "SELECT review_id AS reviewId, product_id AS productId, rating, is_approved AS approved " +
+            "FROM reviews WHERE (:email IS NULL OR reviewer_email = :email) " +
+            "AND (:productId IS NULL OR product_id = :productId) " +
+            "AND (:approved IS NULL OR is_approved = :approved) " +
+            "ORDER BY review_id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<ModerationRow> lockModerationRowsByFilter(@Param("email") String email, @Param("productId") Long productId,
+                                                   @Param("approved") Boolean approved, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE Review r SET r.isApproved = :approved WHERE r.reviewId IN :ids AND r.isApproved <> :approved")
+    int setApprovedByIds(@Param("ids") Collection<Long> ids, @Param("approved") boolean approved);
+
+    @Modifying
+    @Query("DELETE FROM Review r WHERE r.reviewId IN :ids")
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
+
+    // ---- Admin moderation queue: one joined query per page, null filters are ignored ----
+
+    @Query(value = "SELECT new com.example.jewellery_backend.dto.AdminReviewRowDto(" +
+            "r.reviewId, p.productId, p.productName, r.reviewerName, r.reviewerEmail, r.rating, " +
+            "r.commentText, r.reviewDate, r.isApproved) " +
+            "FROM Review r JOIN r.product p " +
+            "WHERE (:approved IS NULL OR r.isApproved = :approved) " +
+            "AND (:productId IS NULL OR p.productId = :productId) " +
+            "AND (:minRating IS NULL OR r.rating >= :minRating) " +
+            "AND (:maxRating IS NULL OR r.rating <= :maxRating) " +
+            "AND (:from IS NULL OR r.reviewDate >= :from) " +
+            "AND (:to IS NULL OR r.reviewDate < :to)",
+            countQuery = "SELECT COUNT(r) FROM Review r " +
+                    "WHERE (:approved IS NULL OR r.isApproved = :approved) " +
+                    "AND (:productId IS NULL OR r.product.productId = :productId) " +
+                    "AND (:minRating IS NULL OR r.rating >= :minRating) " +
+                    "AND (:maxRating IS NULL OR r.rating <= :maxRating) " +
+                    "AND (:from IS NULL OR r.reviewDate >= :from) " +
+                    "AND (:to IS NULL OR r.reviewDate < :to)")
+    Page<AdminReviewRowDto> findModerationQueue(@Param("approved") Boolean approved,
+                                                @Param("productId") Long productId,
+                                                @Param("minRating") Integer minRating,
+                                                @Param("maxRating") Integer maxRating,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to,
+                                                Pageable pageable);
+}
@@ -1,9 +1,16 @@
 package com.example.jewellery_backend.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.example.jewellery_backend.entity.Slip;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +20,25 @@ public interface SlipRepository extends JpaRepository<Slip, Long> {
 
     Optional<Slip> findByOrder_OrderId(Long orderId);
 
+    // same slip content used elsewhere (indexed on checksum)
+    List<Slip> findByChecksumAndSlipIdNot(String checksum, Long slipId);
+
+    boolean existsByFilePath(String filePath);
+
+    // which of these files are still used by a slip
+    @Query("SELECT s.filePath FROM Slip s WHERE s.filePath IN :paths")
+    List<String> findFilePathsIn(@Param("paths") Collection<String> paths);
+
+    // slips still stored in the old per-order directories, in id order (keyset)
+    @Query("SELECT s FROM Slip s WHERE s.slipId > :afterId AND s.filePath NOT LIKE 'blobs/%' ORDER BY s.slipId")
+    List<Slip> findLegacyStoredAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // only moves the slip if it still points to the old file (it may have been replaced meanwhile)
+    @Modifying
+    @Transactional
+    @Query("UPDATE Slip s SET s.filePath = :newPath, s.checksum = :checksum " +
+            "WHERE s.slipId = :slipId AND s.filePath = :oldPath")
+    int relocate(@Param("slipId") Long slipId, @Param("oldPath") String oldPath,
+                 @Param("newPath") String newPath, @Param("checksum") String checksum);
+
 }
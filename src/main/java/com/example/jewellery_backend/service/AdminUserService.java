@@ -2,11 +2,19 @@ package com.example.jewellery_backend.service;
 
 import com.example.jewellery_backend.dto.*;
 
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+
 public interface AdminUserService {
 
     AdminUserResponse register(AdminUserRegisterRequest request);
 
-    AdminUserLoginResponse login(AdminUserLoginRequest request);
+    // completes on the password-check pool; the request thread is released meanwhile
+    CompletableFuture<AdminUserLoginResponse> login(AdminUserLoginRequest request, String clientIp);
 
     AdminUserResponse getById(Long id);
+
+    void logout(String tokenId, Date expiresAt);
+
+    AdminUserResponse deactivate(Long id);
 }
@@ -1,12 +1,25 @@
 package com.example.jewellery_backend.service;
 
 import com.example.jewellery_backend.dto.*;
-import jakarta.servlet.http.HttpSession;
+
+import java.util.List;
 
 public interface CartService {
-    CartResponseDto getCart(HttpSession session);
-    CartResponseDto addToCart(HttpSession session, AddToCartRequest req);
-    CartResponseDto updateCartItem(HttpSession session, UpdateCartItemRequest req);
-    CartResponseDto removeItem(HttpSession session, String itemKey);
-    CartResponseDto clearCart(HttpSession session);
+    CartResponseDto getCart(String cartToken);
+    CartResponseDto addToCart(String cartToken, AddToCartRequest req);
+    CartResponseDto updateCartItem(String cartToken, UpdateCartItemRequest req);
+    CartResponseDto removeItem(String cartToken, String itemKey);
+    CartResponseDto clearCart(String cartToken);
+
+    /**
+     * Applies all operations as one cart change; nothing is applied if any operation is invalid.
+     */
+    CartResponseDto applyBulk(String cartToken, BulkCartRequest req);
+
+    /**
+     * Checks the cart against current prices, availability and stock and moves lines to current prices.
+     */
+    CartValidationResultDto validateCart(String cartToken);
+
+    CartResponseDto applyPriceChanges(String cartToken, List<CartLineChangeDto> changes);
 }
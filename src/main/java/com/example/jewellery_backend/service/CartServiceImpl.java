@@ -3,147 +3,198 @@ package com.example.jewellery_backend.service;
 import com.example.jewellery_backend.Cart;
 import com.example.jewellery_backend.CartItem;
 import com.example.jewellery_backend.dto.*;
+import com.example.jewellery_backend.exception.CartException;
 import com.example.jewellery_backend.exception.ProductNotFoundException;
 import com.example.jewellery_backend.util.CartMapper;
-import com.example.jewellery_backend.entity.*;
-import com.example.jewellery_backend.repository.*;
 import com.example.jewellery_backend.service.CartService;
-import com.example.jewellery_backend.entity.Product;
-import com.example.jewellery_backend.entity.ProductImage;
 
-import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+// Not transactional as a whole: CartStore owns its transactions so a conflicting save can be retried
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class CartServiceImpl implements CartService {
 
-    private final ProductRepository productRepository;
-    private final ProductImageRepository productImageRepository;
-
-    private Cart getOrCreateCart(HttpSession session) {
-        Cart cart = (Cart) session.getAttribute(Cart.SESSION_ATTRIBUTE);
-        if (cart == null) {
-            cart = Cart.builder().build();
-            session.setAttribute(Cart.SESSION_ATTRIBUTE, cart);
+    private static final int MAX_SAVE_ATTEMPTS = 3;
+
+    private final ProductSummaryCache productSummaryCache;
+    private final CartStore cartStore;
+    private final CartValidator cartValidator;
+    private final ProductPricingService productPricingService;
+
+    /**
+     * Loads the cart, applies the change and stores it. If another request changed the
+     * stored cart in between, the cart is reloaded and the change applied again.
+     */
+    private Cart mutate(String cartToken, Consumer<Cart> change) {
+        for (int attempt = 1; ; attempt++) {
+            Cart cart = cartStore.load(cartToken);
+            change.accept(cart);
+            try {
+                cartStore.save(cartToken, cart);
+                return cart;
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt >= MAX_SAVE_ATTEMPTS) {
+                    throw new CartException("Cart was modified by another request, please retry", e);
+                }
+            }
         }
-        return cart;
     }
 
     @Override
-    public CartResponseDto getCart(HttpSession session) {
-        Cart cart = getOrCreateCart(session);
+    public CartResponseDto getCart(String cartToken) {
+        Cart cart = cartStore.load(cartToken);
         return toDto(cart);
     }
 
     @Override
-    public CartResponseDto addToCart(HttpSession session, AddToCartRequest req) {
-        Product product = productRepository.findById(req.getProductId())
+    public CartResponseDto addToCart(String cartToken, AddToCartRequest req) {
+        ProductSummary product = productSummaryCache.get(req.getProductId())
                 .orElseThrow(() -> new ProductNotFoundException(req.getProductId()));
 
-        BigDecimal price = determinePrice(product, req.getAttributeValueId());
-
-        String itemKey = CartMapper.makeItemKey(product.getProductId(), req.getAttributeValueId());
-        CartItem item = CartItem.builder()
-                .itemKey(itemKey)
-                .productId(product.getProductId())
-                .attributeValueId(req.getAttributeValueId())
-                .productName(getProductName(product))
-                .quantity(req.getQuantity() == null ? 1 : req.getQuantity())
-                .unitPrice(price)
-                .build();
-        item.recalcTotal();
-
-        // attach image
-        attachPrimaryImage(product.getProductId(), item);
-
-        Cart cart = getOrCreateCart(session);
-        cart.addItem(item);
-        session.setAttribute(Cart.SESSION_ATTRIBUTE, cart);
-
-        return toDto(cart);
+        CartItem item = newItem(product, req.getAttributeValueId(), req.getQuantity() == null ? 1 : req.getQuantity());
+        return toDto(mutate(cartToken, cart -> cart.addItem(item)));
     }
 
     @Override
-    public CartResponseDto updateCartItem(HttpSession session, UpdateCartItemRequest req) {
-        Cart cart = getOrCreateCart(session);
-        cart.updateQuantity(req.getItemKey(), req.getQuantity());
-        session.setAttribute(Cart.SESSION_ATTRIBUTE, cart);
-        return toDto(cart);
+    public CartResponseDto updateCartItem(String cartToken, UpdateCartItemRequest req) {
+        return toDto(mutate(cartToken, cart -> cart.updateQuantity(req.getItemKey(), req.getQuantity())));
     }
 
     @Override
-    public CartResponseDto removeItem(HttpSession session, String itemKey) {
-        Cart cart = getOrCreateCart(session);
-        cart.removeItem(itemKey);
-        session.setAttribute(Cart.SESSION_ATTRIBUTE, cart);
-        return toDto(cart);
+    public CartResponseDto removeItem(String cartToken, String itemKey) {
+        return toDto(mutate(cartToken, cart -> cart.removeItem(itemKey)));
     }
 
     @Override
-    public CartResponseDto clearCart(HttpSession session) {
-        Cart cart = getOrCreateCart(session);
-        cart.clear();
-        session.setAttribute(Cart.SESSION_ATTRIBUTE, cart);
-        return toDto(cart);
+    public CartResponseDto clearCart(String cartToken) {
+        return toDto(mutate(cartToken, Cart::clear));
     }
 
-    private BigDecimal determinePrice(Product product, Long attributeValueId) {
-        // Use product.getPrice() by default. If attributes change price, retrieve attribute and compute.
-        // Replace getPrice() with actual getter if different.
-        try {
-            return product.getBasePrice();
-        } catch (Exception e) {
-            return BigDecimal.ZERO;
+    @Override
+    public CartResponseDto applyBulk(String cartToken, BulkCartRequest req) {
+        List<CartOperationDto> ops = req.getOperations() == null ? List.of() : req.getOperations();
+
+        // check every operation and resolve all referenced products before touching the cart
+        Set<Long> productIds = new HashSet<>();
+        for (int i = 0; i < ops.size(); i++) {
+            CartOperationDto op = ops.get(i);
+            if (op == null || op.getOp() == null) {
+                throw new IllegalArgumentException("operations[" + i + "]: op is required");
+            }
+            switch (op.getOp()) {
+                case ADD -> {
+                    if (op.getProductId() == null) {
+                        throw new IllegalArgumentException("operations[" + i + "]: productId is required for ADD");
+                    }
+                    if (op.getQuantity() != null && op.getQuantity() <= 0) {
+                        throw new IllegalArgumentException("operations[" + i + "]: quantity must be positive");
+                    }
+                    productIds.add(op.getProductId());
+                }
+                case UPDATE -> {
+                    if (op.getItemKey() == null || op.getQuantity() == null) {
+                        throw new IllegalArgumentException("operations[" + i + "]: itemKey and quantity are required for UPDATE");
+                    }
+                }
+                case REMOVE -> {
+                    if (op.getItemKey() == null) {
+                        throw new IllegalArgumentException("operations[" + i + "]: itemKey is required for REMOVE");
+                    }
+                }
+            }
         }
-    }
-
-    private void attachPrimaryImage(Long productId, CartItem item) {
-        // Try to find a primary image; fallback to first ordered image
-        Optional<ProductImage> primary = Optional.empty();
-        try {
-            // Try repository method by productId and isPrimary
-            primary = productImageRepository.findFirstByProduct_ProductIdAndIsPrimaryTrue(productId);
-        } catch (Exception ignore) {
-            // Some projects need findFirstByProduct_IdAndIsPrimaryTrue depending on naming
-            try {
-                primary = Optional.empty();
-            } catch (Exception e) { /* ignore */ }
+        Map<Long, ProductSummary> products = productSummaryCache.getAll(productIds);
+        for (Long id : productIds) {
+            if (!products.containsKey(id)) throw new ProductNotFoundException(id);
         }
 
-        if (primary.isEmpty()) {
-            // fallback to first by sort order
-            var list = productImageRepository.findByProduct_ProductIdOrderBySortOrderAsc(productId);
-            if (!list.isEmpty()) primary = Optional.of(list.get(0));
+        List<CartItem> added = new ArrayList<>();
+        for (CartOperationDto op : ops) {
+            if (op.getOp() == CartOperationDto.OperationType.ADD) {
+                added.add(newItem(products.get(op.getProductId()), op.getAttributeValueId(),
+                        op.getQuantity() == null ? 1 : op.getQuantity()));
+            }
         }
 
-        primary.ifPresent(img -> {
-            item.setImageUrl(img.getImageUrl());
-            item.setImageAlt(img.getAltText());
-        });
+        // a line missing when its operation is reached fails the whole batch; the edit is then never applied
+        Cart cart = mutate(cartToken, c -> c.update(edit -> {
+            Iterator<CartItem> nextAdded = added.iterator();
+            for (int i = 0; i < ops.size(); i++) {
+                CartOperationDto op = ops.get(i);
+                if (op.getOp() != CartOperationDto.OperationType.ADD && !edit.contains(op.getItemKey())) {
+                    throw new IllegalArgumentException("operations[" + i + "]: no cart line " + op.getItemKey());
+                }
+                switch (op.getOp()) {
+                    case ADD -> edit.add(nextAdded.next());
+                    case UPDATE -> edit.setQuantity(op.getItemKey(), op.getQuantity());
+                    case REMOVE -> edit.remove(op.getItemKey());
+                }
+            }
+        }));
+        return toDto(cart);
     }
 
-    private String getProductName(Product product) {
-        // replace getName() if your entity uses a different getter
-        try {
-            return product.getProductName();
-        } catch (Exception e) {
-            return "Product-" + product.getProductId();
-        }
+    @Override
+    public CartValidationResultDto validateCart(String cartToken) {
+        Cart cart = cartStore.load(cartToken);
+        Cart.Snapshot snapshot = cart.snapshot();
+        CartValidationResultDto result = cartValidator.validate(
+                snapshot, cartValidator.loadProducts(snapshot, false), productPricingService.latestGoldRate());
+        result.setCart(applyPriceChanges(cartToken, result.getChanges()));
+        return result;
+    }
+
+    @Override
+    public CartResponseDto applyPriceChanges(String cartToken, List<CartLineChangeDto> changes) {
+        List<CartLineChangeDto> priceChanges = changes.stream()
+                .filter(c -> c.getType() == CartLineChangeDto.ChangeType.PRICE_CHANGED)
+                .collect(Collectors.toList());
+        if (priceChanges.isEmpty()) return getCart(cartToken);
+        return toDto(mutate(cartToken, cart -> cart.update(edit ->
+                priceChanges.forEach(c -> edit.reprice(c.getItemKey(), c.getNewUnitPrice())))));
+    }
+
+    private CartItem newItem(ProductSummary product, Long attributeValueId, int quantity) {
+        CartItem item = CartItem.builder()
+                .itemKey(CartMapper.makeItemKey(product.getProductId(), attributeValueId))
+                .productId(product.getProductId())
+                .attributeValueId(attributeValueId)
+                .productName(product.getProductName())
+                .quantity(quantity)
+                .unitPrice(determinePrice(product, attributeValueId))
+                .imageUrl(product.getImageUrl())
+                .imageAlt(product.getImageAlt())
+                .build();
+        item.recalcTotal();
+        return item;
+    }
+
+    private BigDecimal determinePrice(ProductSummary product, Long attributeValueId) {
+        // Attribute values don't change the price yet; the summary carries the product's current price.
+        return product.getPrice() != null ? product.getPrice() : BigDecimal.ZERO;
     }
 
     private CartResponseDto toDto(Cart cart) {
+        // render from a single snapshot so lines and totals always agree
+        Cart.Snapshot snapshot = cart.snapshot();
+        // current names and images come from the summary cache, prices stay as captured
+        Map<Long, ProductSummary> summaries = productSummaryCache.getAll(
+                snapshot.itemList().stream().map(CartItem::getProductId).collect(Collectors.toSet()));
         return CartResponseDto.builder()
-                .items(cart.getItemList().stream().map(CartMapper::toDto).collect(Collectors.toList()))
-                .cartTotal(cart.getCartTotal())
-                .totalQuantity(cart.getTotalQuantity())
+                .items(snapshot.itemList().stream()
+                        .map(item -> CartMapper.toDto(item, summaries.get(item.getProductId())))
+                        .collect(Collectors.toList()))
+                .cartTotal(snapshot.cartTotal())
+                .totalQuantity(snapshot.totalQuantity())
                 .build();
     }
 }
@@ -0,0 +1,23 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.Cart;
+
+/**
+ * Where carts live between requests, keyed by the cart token.
+ * Selected with the cart.storage property.
+ */
+public interface CartStore {
+
+    /**
+     * Returns the cart for the token, or a new empty cart if none is stored.
+     */
+    Cart load(String cartToken);
+
+    /**
+     * Stores the cart. Throws OptimisticLockingFailureException when another
+     * request changed the stored cart since it was loaded.
+     */
+    void save(String cartToken, Cart cart);
+
+    void remove(String cartToken);
+}
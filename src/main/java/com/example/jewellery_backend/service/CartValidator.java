@@ -0,0 +1,102 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.Cart;
+import com.example.jewellery_backend.CartItem;
+import com.example.jewellery_backend.dto.CartLineChangeDto;
+import com.example.jewellery_backend.dto.CartLineChangeDto.ChangeType;
+import com.example.jewellery_backend.dto.CartValidationResultDto;
+import com.example.jewellery_backend.entity.Product;
+import com.example.jewellery_backend.repository.ProductRepository;
+import com.example.jewellery_backend.util.Money;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Checks cart lines against the products as they are now: current price (gold-linked where applicable),
+ * active flag and stock. Products are always loaded with one query for the whole cart.
+ */
+@Component
+public class CartValidator {
+
+    private final ProductRepository productRepository;
+    private final ProductPricingService productPricingService;
+
+    public CartValidator(ProductRepository productRepository, ProductPricingService productPricingService) {
+        this.productRepository = productRepository;
+        this.productPricingService = productPricingService;
+    }
+
+    /**
+     * Loads the products of the cart; with forUpdate the rows stay locked until the transaction ends.
+     */
+    public Map<Long, Product> loadProducts(Cart.Snapshot snapshot, boolean forUpdate) {
+        Set<Long> ids = snapshot.items().values().stream()
+                .map(CartItem::getProductId)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) return Collections.emptyMap();
+        List<Product> products = forUpdate
+                ? productRepository.findAllForUpdateByProductIdIn(ids)
+                : productRepository.findAllById(ids);
+        return products.stream().collect(Collectors.toMap(Product::getProductId, Function.identity()));
+    }
+
+    public CartValidationResultDto validate(Cart.Snapshot snapshot, Map<Long, Product> products, BigDecimal goldRate) {
+        // several lines (attribute values) can draw on the same product's stock
+        Map<Long, Integer> demand = new HashMap<>();
+        for (CartItem item : snapshot.items().values()) {
+            demand.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        List<CartLineChangeDto> changes = new ArrayList<>();
+        long totalMinor = 0;
+        for (CartItem item : snapshot.items().values()) {
+            Product product = products.get(item.getProductId());
+            if (product == null) {
+                changes.add(change(item, ChangeType.PRODUCT_REMOVED).build());
+                continue;
+            }
+            if (Boolean.FALSE.equals(product.getIsActive())) {
+                changes.add(change(item, ChangeType.INACTIVE).productName(product.getProductName()).build());
+                continue;
+            }
+
+            BigDecimal currentPrice = productPricingService.priceOf(product, goldRate);
+            BigDecimal oldPrice = item.getUnitPrice() != null ? item.getUnitPrice() : BigDecimal.ZERO;
+            if (Money.toMinor(oldPrice) != Money.toMinor(currentPrice)) {
+                changes.add(change(item, ChangeType.PRICE_CHANGED)
+                        .productName(product.getProductName())
+                        .newUnitPrice(currentPrice)
+                        .build());
+            }
+
+            int stock = product.getStockQuantity() != null ? product.getStockQuantity() : 0;
+            if (demand.get(item.getProductId()) > stock) {
+                changes.add(change(item, ChangeType.INSUFFICIENT_STOCK)
+                        .productName(product.getProductName())
+                        .availableQuantity(stock)
+                        .build());
+            }
+            totalMinor += Math.multiplyExact(Money.toMinor(currentPrice), item.getQuantity());
+        }
+
+        return CartValidationResultDto.builder()
+                .valid(changes.isEmpty())
+                .changes(changes)
+                .cartTotal(Money.fromMinor(totalMinor))
+                .build();
+    }
+
+    private CartLineChangeDto.CartLineChangeDtoBuilder change(CartItem item, ChangeType type) {
+        return CartLineChangeDto.builder()
+                .itemKey(item.getItemKey())
+                .productId(item.getProductId())
+                .productName(item.getProductName())
+                .type(type)
+                .oldUnitPrice(item.getUnitPrice())
+                .requestedQuantity(item.getQuantity());
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.repository.ProductCategoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Active-product counts per category, kept in memory:
+ * direct = products linked to the category itself,
+ * subtree = distinct products linked to the category or any category below it (what the menu shows).
+ * <p>
+ * A product change only touches the categories whose covering ancestor set changed, so no counting
+ * query runs per render or per write. The hierarchy comes from CategoryTreeCache; after a category move
+ * the subtree counts are recomputed from the in-memory links. A periodic reload corrects drift from
+ * writes made on other nodes.
+ */
+@Slf4j
+@Component
+public class CategoryProductCounts {
+
+    private static final int MAX_DEPTH = 64;
+
+    /**
+     * Immutable counts; replaced as a whole on every change.
+     */
+    public record Counts(Map<Long, Integer> direct, Map<Long, Integer> subtree) {
+        static final Counts EMPTY = new Counts(Map.of(), Map.of());
+
+        public int direct(Long categoryId) {
+            return direct.getOrDefault(categoryId, 0);
+        }
+
+        public int subtree(Long categoryId) {
+            return subtree.getOrDefault(categoryId, 0);
+        }
+    }
+
+    private final ProductCategoryRepository productCategoryRepository;
+
+    private volatile Counts counts = Counts.EMPTY;
+    // guarded by this
+    private Map<Long, Long> parents = Map.of();
+    private final Map<Long, Set<Long>> activeProductCategories = new HashMap<>();
+    private boolean loaded;
+
+    public CategoryProductCounts(ProductCategoryRepository productCategoryRepository) {
+        this.productCategoryRepository = productCategoryRepository;
+    }
+
+    public Counts current() {
+        return counts;
+    }
+
+    /**
+     * Called by CategoryTreeCache with the new child -> parent links.
+     */
+    public synchronized void onHierarchyChanged(Map<Long, Long> parents) {
+        this.parents = parents;
+        if (!loaded) loadLinks();
+        recomputeAll();
+    }
+
+    @Scheduled(initialDelay = 900_000, fixedDelay = 900_000)
+    public synchronized void reload() {
+        loadLinks();
+        recomputeAll();
+    }
+
+    /**
+     * Records a product's state once the current transaction has committed.
+     * categoryIds are the product's direct categories; inactive or deleted products pass active = false.
+     */
+    public void productChangedAfterCommit(Long productId, boolean active, Collection<Long> categoryIds) {
+        Set<Long> ids = categoryIds == null ? Set.of() : Set.copyOf(categoryIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    productChanged(productId, active, ids);
+                }
+            });
+        } else {
+            productChanged(productId, active, ids);
+        }
+    }
+
+    public synchronized void productChanged(Long productId, boolean active, Set<Long> categoryIds) {
+        if (!loaded) return; // the first load will see the committed state
+        Set<Long> oldCategories = activeProductCategories.getOrDefault(productId, Set.of());
+        Set<Long> newCategories = active ? categoryIds : Set.of();
+        if (oldCategories.equals(newCategories)) return;
+
+        if (newCategories.isEmpty()) {
+            activeProductCategories.remove(productId);
+        } else {
+            activeProductCategories.put(productId, newCategories);
+        }
+
+        Map<Long, Integer> direct = new HashMap<>(counts.direct());
+        Map<Long, Integer> subtree = new HashMap<>(counts.subtree());
+        for (Long c : oldCategories) {
+            if (!newCategories.contains(c)) add(direct, c, -1);
+        }
+        for (Long c : newCategories) {
+            if (!oldCategories.contains(c)) add(direct, c, 1);
+        }
+        // the product counts once in every category that covers at least one of its links
+        Set<Long> oldCovered = covering(oldCategories);
+        Set<Long> newCovered = covering(newCategories);
+        for (Long c : oldCovered) {
+            if (!newCovered.contains(c)) add(subtree, c, -1);
+        }
+        for (Long c : newCovered) {
+            if (!oldCovered.contains(c)) add(subtree, c, 1);
+        }
+        counts = new Counts(Collections.unmodifiableMap(direct), Collections.unmodifiableMap(subtree));
+    }
+
+    private void loadLinks() {
+        activeProductCategories.clear();
+        for (Object[] link : productCategoryRepository.findActiveProductLinks()) {
+            Long productId = ((Number) link[0]).longValue();
+            Long categoryId = ((Number) link[1]).longValue();
+            activeProductCategories.computeIfAbsent(productId, k -> new HashSet<>()).add(categoryId);
+        }
+        loaded = true;
+    }
+
+    private void recomputeAll() {
+        Map<Long, Integer> direct = new HashMap<>();
+        Map<Long, Integer> subtree = new HashMap<>();
+        for (Set<Long> categories : activeProductCategories.values()) {
+            for (Long c : categories) add(direct, c, 1);
+            for (Long c : covering(categories)) add(subtree, c, 1);
+        }
+        counts = new Counts(Collections.unmodifiableMap(direct), Collections.unmodifiableMap(subtree));
+        log.debug("Category product counts recomputed for {} active products", activeProductCategories.size());
+    }
+
+    // the categories and all their ancestors
+    private Set<Long> covering(Set<Long> categories) {
+        Set<Long> result = new HashSet<>();
+        for (Long c : categories) {
+            Long current = c;
+            for (int i = 0; current != null && i < MAX_DEPTH && result.add(current); i++) {
+                current = parents.get(current);
+            }
+        }
+        return result;
+    }
+
+    private static void add(Map<Long, Integer> counts, Long categoryId, int delta) {
+        counts.merge(categoryId, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+}
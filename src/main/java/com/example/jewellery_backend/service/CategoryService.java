@@ -1,5 +1,6 @@
 package com.example.jewellery_backend.service;
 
+import com.example.jewellery_backend.dto.CategoryClosureCheckDto;
 import com.example.jewellery_backend.dto.CategoryDto;
 import java.util.List;
 
@@ -9,4 +10,6 @@ public interface CategoryService {
     void deleteCategory(Long id);
     CategoryDto getCategoryById(Long id);
     List<CategoryDto> getAllCategories();
+    CategoryDto moveCategory(Long id, Long newParentId);
+    CategoryClosureCheckDto checkClosure(boolean repair);
 }
@@ -0,0 +1,164 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.dto.CategoryDto;
+import com.example.jewellery_backend.dto.CategoryTreeNodeDto;
+import com.example.jewellery_backend.entity.Category;
+import com.example.jewellery_backend.exception.ResourceNotFoundException;
+import com.example.jewellery_backend.repository.CategoryClosureRepository;
+import com.example.jewellery_backend.repository.CategoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The whole category hierarchy in memory, built from the depth-1 rows of categories_closure.
+ * A snapshot is immutable and replaced as a whole after category writes, so readers never lock
+ * and always see one consistent tree. Breadcrumbs follow parent links: O(depth).
+ * The public tree carries product counts and is rebuilt only when the hierarchy or the counts changed.
+ */
+@Slf4j
+@Component
+public class CategoryTreeCache {
+
+    // guards against cycles in bad closure data
+    private static final int MAX_DEPTH = 64;
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryClosureRepository categoryClosureRepository;
+    private final CategoryProductCounts categoryProductCounts;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicReference<PublicTree> publicTree = new AtomicReference<>();
+
+    public CategoryTreeCache(CategoryRepository categoryRepository,
+                             CategoryClosureRepository categoryClosureRepository,
+                             CategoryProductCounts categoryProductCounts) {
+        this.categoryRepository = categoryRepository;
+        this.categoryClosureRepository = categoryClosureRepository;
+        this.categoryProductCounts = categoryProductCounts;
+    }
+
+    private record Node(Long id, String name, String slug, boolean active, Long parentId) {}
+
+    /**
+     * @param nodes    every category by id
+     * @param roots    top-level categories, sorted by name
+     * @param children child categories by parent id, sorted by name
+     */
+    private record Snapshot(Map<Long, Node> nodes, List<Node> roots, Map<Long, List<Node>> children) {}
+
+    // the DTO tree built from one snapshot and one set of counts
+    private record PublicTree(Snapshot snapshot, CategoryProductCounts.Counts counts, List<CategoryTreeNodeDto> tree) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        rebuild();
+    }
+
+    /**
+     * Tree of active categories (an inactive category hides its subtree), roots first.
+     */
+    public List<CategoryTreeNodeDto> getTree() {
+        Snapshot s = current();
+        CategoryProductCounts.Counts counts = categoryProductCounts.current();
+        PublicTree cached = publicTree.get();
+        if (cached != null && cached.snapshot() == s && cached.counts() == counts) {
+            return cached.tree();
+        }
+        List<CategoryTreeNodeDto> tree = toDtos(s.roots(), s.children(), counts, 0);
+        publicTree.set(new PublicTree(s, counts, tree));
+        return tree;
+    }
+
+    /**
+     * Path from the root down to the category (inclusive).
+     */
+    public List<CategoryDto> getBreadcrumbs(Long categoryId) {
+        Map<Long, Node> nodes = current().nodes();
+        Node node = nodes.get(categoryId);
+        if (node == null) {
+            throw new ResourceNotFoundException("Category", "id", categoryId);
+        }
+        LinkedList<CategoryDto> path = new LinkedList<>();
+        for (int i = 0; node != null && i < MAX_DEPTH; i++) {
+            path.addFirst(new CategoryDto(node.id(), node.name(), node.slug()));
+            node = node.parentId() != null ? nodes.get(node.parentId()) : null;
+        }
+        return path;
+    }
+
+    /**
+     * Rebuilds once the current transaction has committed (right away without one).
+     */
+    public void rebuildAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    // synchronized: two rebuilds racing must not let the older data win
+    public synchronized void rebuild() {
+        Map<Long, Node> nodes = new HashMap<>();
+        Map<Long, Long> parents = new HashMap<>();
+        for (Object[] edge : categoryClosureRepository.findParentChildPairs()) {
+            parents.put(((Number) edge[1]).longValue(), ((Number) edge[0]).longValue());
+        }
+        for (Category c : categoryRepository.findAll()) {
+            Long parentId = parents.get(c.getCategoryId());
+            nodes.put(c.getCategoryId(), new Node(c.getCategoryId(), c.getCategoryName(), c.getSlug(),
+                    !Boolean.FALSE.equals(c.getIsActive()), parentId));
+        }
+
+        Map<Long, List<Node>> children = new HashMap<>();
+        List<Node> roots = new ArrayList<>();
+        for (Node n : nodes.values()) {
+            if (n.parentId() == null || !nodes.containsKey(n.parentId())) {
+                roots.add(n);
+            } else {
+                children.computeIfAbsent(n.parentId(), k -> new ArrayList<>()).add(n);
+            }
+        }
+        Comparator<Node> byName = Comparator.comparing(Node::name, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+        roots.sort(byName);
+        children.values().forEach(list -> list.sort(byName));
+
+        snapshot.set(new Snapshot(Collections.unmodifiableMap(nodes), List.copyOf(roots), children));
+        categoryProductCounts.onHierarchyChanged(Map.copyOf(parents));
+        log.debug("Category tree rebuilt: {} categories", nodes.size());
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot.get();
+        if (s == null) {
+            rebuild();
+            s = snapshot.get();
+        }
+        return s;
+    }
+
+    private List<CategoryTreeNodeDto> toDtos(List<Node> level, Map<Long, List<Node>> children,
+                                             CategoryProductCounts.Counts counts, int depth) {
+        if (depth >= MAX_DEPTH) return List.of();
+        List<CategoryTreeNodeDto> result = new ArrayList<>();
+        for (Node n : level) {
+            if (!n.active()) continue;
+            result.add(new CategoryTreeNodeDto(n.id(), n.name(), n.slug(),
+                    counts.subtree(n.id()), counts.direct(n.id()),
+                    toDtos(children.getOrDefault(n.id(), List.of()), children, counts, depth + 1)));
+        }
+        return Collections.unmodifiableList(result);
+    }
+}
@@ -10,7 +10,14 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -60,6 +67,115 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * A stored blob: relative path to save in DB, SHA-256 of the content (hex) and size in bytes.
+     */
+    public record StoredFile(String relativePath, String sha256, long size) {}
+
+    /**
+     * Store a file content-addressed under "blobs/{namespace}/ab/cd/{sha256}".
+     * The SHA-256 is computed while the upload is copied (one pass, no second read);
+     * if a blob with the same content already exists, the new copy is dropped and the existing path returned.
+     */
+    public StoredFile storeContentAddressed(MultipartFile file, String namespace) {
+        try (InputStream in = file.getInputStream()) {
+            return storeContentAddressed(in, namespace, "");
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to store file " + file.getOriginalFilename(), e);
+        }
+    }
+
+    /**
+     * Same as above for any stream; extension (e.g. ".jpg", may be empty) is appended to the blob name
+     * so the file can be served with the right content type.
+     */
+    public StoredFile storeContentAddressed(InputStream content, String namespace, String extension) {
+        Path tmpDir = this.fileStorageLocation.resolve("tmp");
+        Path tmp = null;
+        try {
+            Files.createDirectories(tmpDir);
+            tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size = Files.copy(new DigestInputStream(content, digest), tmp, StandardCopyOption.REPLACE_EXISTING);
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+
+            Path target = this.fileStorageLocation
+                    .resolve(shardedPath("blobs/" + namespace, sha256, sha256 + extension))
+                    .normalize();
+            Files.createDirectories(target.getParent());
+            if (Files.exists(target)) {
+                Files.delete(tmp); // same content already stored
+                // counts as new for the orphan cleanup's grace period until the new reference is committed
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            } else {
+                try {
+                    Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    Files.deleteIfExists(tmp); // stored concurrently by another upload
+                }
+            }
+            tmp = null;
+
+            String rel = this.fileStorageLocation.relativize(target).toString().replace("\\", "/");
+            return new StoredFile(rel, sha256, size);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new FileStorageException("Failed to store file in " + namespace, e);
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // leftover temp file, removed by the next cleanup
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy an already stored file into the content-addressed layout (used when migrating old uploads).
+     * The blob gets no extension, as new uploads do, so the same content maps to the same blob.
+     * The original is left in place; the caller deletes it once the DB points to the new path.
+     */
+    public StoredFile copyToContentAddressed(String relativePath, String namespace) {
+        try (InputStream in = Files.newInputStream(getFilePath(relativePath))) {
+            return storeContentAddressed(in, namespace, "");
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to read file " + relativePath, e);
+        }
+    }
+
+    public boolean exists(String relativePath) {
+        return Files.isRegularFile(getFilePath(relativePath));
+    }
+
+    /**
+     * Delete a file and then its parent directories as long as they are empty (stops at the upload dir).
+     */
+    public void deleteAndPruneEmptyDirs(String relativePath) {
+        Path file = getFilePath(relativePath);
+        try {
+            Files.deleteIfExists(file);
+            Path dir = file.getParent();
+            while (dir != null && dir.startsWith(this.fileStorageLocation) && !dir.equals(this.fileStorageLocation)) {
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                    if (entries.iterator().hasNext()) break;
+                }
+                Files.deleteIfExists(dir);
+                dir = dir.getParent();
+            }
+        } catch (DirectoryNotEmptyException e) {
+            // a file was added concurrently, keep the directory
+        } catch (IOException e) {
+            throw new FileStorageException("Could not delete file " + relativePath, e);
+        }
+    }
+
+    // {baseDir}/ab/cd/{fileName} with ab/cd taken from a hex hash: at most 256 x 256 directories
+    private static String shardedPath(String baseDir, String hexKey, String fileName) {
+        return baseDir + "/" + hexKey.substring(0, 2) + "/" + hexKey.substring(2, 4) + "/" + fileName;
+    }
+
     /**
      * Load a file as Spring Resource using its relative path.
      */
@@ -87,6 +203,10 @@ public class FileStorageService {
         }
     }
 
+    public Path getRootLocation() {
+        return this.fileStorageLocation;
+    }
+
     /**
      * Get the absolute Path of a stored file.
      */
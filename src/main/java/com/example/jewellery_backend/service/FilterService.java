@@ -1,15 +1,20 @@
 package com.example.jewellery_backend.service;
 
 import com.example.jewellery_backend.dto.Filter.FilterRequest;
-import com.example.jewellery_backend.entity.Product;
-import org.springframework.data.domain.Page;
+import com.example.jewellery_backend.dto.ProductCardPageDto;
+
+import java.util.List;
 
 public interface FilterService {
     /**
-     * Filter products based on the passed FilterRequest.
-     *
-     * @param request FilterRequest object (minPrice, maxPrice, categoryIds, attributes, page, size)
-     * @return a page of Product entities matching the filters
+     * One page of product cards matching the filters, newest first.
+     * The filter selects only the ids of the page; the cards come from the product summary cache.
+     * request.countMode decides how totalElements is computed (exact, cached, or not at all).
+     */
+    ProductCardPageDto filterProductCards(FilterRequest request);
+
+    /**
+     * Ids of all products matching the filters (page and size are ignored), in ascending order.
      */
-    Page<Product> filterProducts(FilterRequest request);
+    List<Long> findMatchingIds(FilterRequest request);
 }
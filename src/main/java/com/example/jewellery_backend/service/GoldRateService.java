@@ -11,9 +11,11 @@ import java.util.Optional;
 public class GoldRateService {
 
     private final GoldRateRepository goldRateRepository;
+    private final ProductSummaryCache productSummaryCache;
 
-    public GoldRateService(GoldRateRepository goldRateRepository) {
+    public GoldRateService(GoldRateRepository goldRateRepository, ProductSummaryCache productSummaryCache) {
         this.goldRateRepository = goldRateRepository;
+        this.productSummaryCache = productSummaryCache;
     }
 
     public List<GoldRate> getAllGoldRates() {
@@ -25,6 +27,9 @@ public class GoldRateService {
     }
 
     public GoldRate saveGoldRate(GoldRate goldRate) {
-        return goldRateRepository.save(goldRate);
+        GoldRate saved = goldRateRepository.save(goldRate);
+        // cached prices of gold products depend on the latest rate
+        productSummaryCache.evictAll();
+        return saved;
     }
 }
@@ -0,0 +1,221 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.entity.ProductImage;
+import com.example.jewellery_backend.repository.ProductImageRepository;
+import com.example.jewellery_backend.util.ProductImageUrls;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Produces the 200 / 600 / 1200 px wide renditions of uploaded product images on a small,
+ * bounded worker pool (plain ImageIO). Decoding only ever happens on the workers: when the queue is full
+ * the image simply stays PENDING and a periodic pass queues it again once there is room.
+ */
+@Slf4j
+@Service
+public class ImageRenditionService implements DisposableBean {
+
+    public static final int THUMB_WIDTH = 200;
+    public static final int MEDIUM_WIDTH = 600;
+    public static final int LARGE_WIDTH = 1200;
+
+    private static final int WORKERS = 2;
+    private static final int QUEUE_CAPACITY = 100;
+    // refuse to decode huge images (a 40 MP RGB image is already ~160 MB on the heap)
+    private static final long MAX_PIXELS = 40_000_000L;
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final ProductImageRepository productImageRepository;
+    private final FileStorageService fileStorageService;
+    private final ProductSummaryCache productSummaryCache;
+    private final ThreadPoolExecutor executor;
+    // queued or rendering, so the periodic pass does not queue an image twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ImageRenditionService(ProductImageRepository productImageRepository,
+                                 FileStorageService fileStorageService,
+                                 ProductSummaryCache productSummaryCache) {
+        this.productImageRepository = productImageRepository;
+        this.fileStorageService = fileStorageService;
+        this.productSummaryCache = productSummaryCache;
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(WORKERS, WORKERS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                r -> {
+                    Thread t = new Thread(r, "image-rendition-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues the image once the current transaction has committed (so the worker can see the row).
+     */
+    public void submitAfterCommit(Long imageId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(imageId);
+                }
+            });
+        } else {
+            submit(imageId);
+        }
+    }
+
+    /**
+     * Queues the image; returns false if the queue is full (the image stays PENDING for the next pass).
+     */
+    public boolean submit(Long imageId) {
+        if (!inFlight.add(imageId)) return true;
+        try {
+            executor.execute(() -> {
+                try {
+                    render(imageId);
+                } finally {
+                    inFlight.remove(imageId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(imageId);
+            log.debug("Rendition queue full, image {} stays pending", imageId);
+            return false;
+        }
+    }
+
+    // uploads still waiting from before a restart, or turned away while the queue was full
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelay = 60_000, fixedDelay = 60_000)
+    public void resumePending() {
+        for (ProductImage img : productImageRepository.findByRenditionStatus(ProductImage.RenditionStatus.PENDING)) {
+            if (!submit(img.getImageId())) return; // full again: the rest waits for the next pass
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void render(Long imageId) {
+        ProductImage img = productImageRepository.findById(imageId).orElse(null);
+        if (img == null || img.getOriginalPath() == null) return;
+        Long productId = img.getProduct().getProductId();
+        try {
+            BufferedImage source = read(fileStorageService.getFilePath(img.getOriginalPath()));
+            // keep transparency as PNG, everything else as JPEG
+            boolean alpha = source.getColorModel().hasAlpha();
+            String thumb = rendition(source, THUMB_WIDTH, alpha, img.getImageUrl());
+            String medium = rendition(source, MEDIUM_WIDTH, alpha, img.getImageUrl());
+            String large = rendition(source, LARGE_WIDTH, alpha, img.getImageUrl());
+            // targeted update, so admin edits made meanwhile (alt text, order) are not overwritten
+            productImageRepository.markRenditionsReady(imageId, thumb, medium, large,
+                    source.getWidth(), source.getHeight());
+        } catch (Exception e) {
+            log.warn("Could not create renditions for image {}", imageId, e);
+            productImageRepository.markRenditionStatus(imageId, ProductImage.RenditionStatus.FAILED);
+        }
+        productSummaryCache.evict(productId);
+    }
+
+    // URL of the rendition; images not wider than the target are served as the original
+    private String rendition(BufferedImage source, int width, boolean alpha, String originalUrl) throws IOException {
+        if (source.getWidth() <= width) return originalUrl;
+        BufferedImage scaled = scale(source, width, alpha);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (alpha) {
+            ImageIO.write(scaled, "png", out);
+        } else {
+            writeJpeg(scaled, out);
+        }
+        FileStorageService.StoredFile stored = fileStorageService.storeContentAddressed(
+                new ByteArrayInputStream(out.toByteArray()), ProductImageUrls.NAMESPACE, alpha ? ".png" : ".jpg");
+        return ProductImageUrls.publicUrl(stored.relativePath());
+    }
+
+    private BufferedImage read(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) throw new IOException("Unsupported image format: " + file);
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_PIXELS) throw new IOException("Image too large: " + pixels + " pixels");
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // halves the size step by step with bilinear filtering: close to bicubic quality, much cheaper
+    private BufferedImage scale(BufferedImage source, int targetWidth, boolean alpha) {
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * (targetWidth / (double) source.getWidth())));
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(targetWidth, w / 2);
+            h = Math.max(targetHeight, h / 2);
+            BufferedImage next = new BufferedImage(w, h, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (w != targetWidth || h != targetHeight);
+        return current;
+    }
+
+    private void writeJpeg(BufferedImage image, ByteArrayOutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.jewellery_backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind for admin_users.last_login. Logins only record the time in memory (repeated logins of
+ * the same admin collapse into one value); a scheduled flush writes all of them with one JDBC batch.
+ * last_login is informational, so losing the last few seconds on a crash is acceptable.
+ */
+@Slf4j
+@Component
+public class LastLoginRecorder implements DisposableBean {
+
+    // never moves last_login backwards (another node may have written a later login)
+    private static final String UPDATE_SQL = "UPDATE admin_users SET last_login = ? " +
+            "WHERE admin_id = ? AND (last_login IS NULL OR last_login < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public LastLoginRecorder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void record(Long adminId, LocalDateTime at) {
+        pending.merge(adminId, at, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    @Scheduled(fixedDelayString = "${security.login.last-login-flush-millis:10000}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+        List<Map.Entry<Long, LocalDateTime>> batch = new ArrayList<>();
+        for (Long adminId : new ArrayList<>(pending.keySet())) {
+            LocalDateTime at = pending.remove(adminId);
+            if (at != null) batch.add(Map.entry(adminId, at));
+        }
+        if (batch.isEmpty()) return;
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, e) -> {
+                Timestamp ts = Timestamp.valueOf(e.getValue());
+                ps.setTimestamp(1, ts);
+                ps.setLong(2, e.getKey());
+                ps.setTimestamp(3, ts);
+            });
+        } catch (DataAccessException e) {
+            log.warn("Could not write last_login for {} admins, will retry", batch.size(), e);
+            batch.forEach(entry -> record(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.config.LoginProperties;
+import com.example.jewellery_backend.exception.TooManyLoginAttemptsException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts failed logins per username and per client address in memory. Once a key reaches its limit
+ * within the failure window it is locked out, and logins for it are refused before any password check,
+ * so a credential-stuffing run costs no BCrypt work once it is noticed.
+ */
+@Component
+public class LoginAttemptTracker {
+
+    private record Attempts(int failures, long windowStart, long lockedUntil) {}
+
+    private final LoginProperties props;
+    private final Map<String, Attempts> attempts = new ConcurrentHashMap<>();
+
+    public LoginAttemptTracker(LoginProperties props) {
+        this.props = props;
+    }
+
+    /**
+     * Throws TooManyLoginAttemptsException if the username or the address is locked out.
+     */
+    public void checkAllowed(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        long lockedUntil = Math.max(lockedUntil(userKey(username), now), lockedUntil(ipKey(clientIp), now));
+        if (lockedUntil > now) {
+            throw new TooManyLoginAttemptsException("Too many failed login attempts, please try again later",
+                    Math.max(1, (lockedUntil - now + 999) / 1000));
+        }
+    }
+
+    public void recordFailure(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        if (attempts.size() >= props.getMaxTrackedKeys()) purgeExpired();
+        // still full: a spray over random usernames must not grow the map, so only usernames already
+        // tracked keep counting; the address is always counted and locks the sprayer out
+        boolean full = attempts.size() >= props.getMaxTrackedKeys();
+        fail(userKey(username), props.getMaxFailuresPerUser(), now, !full);
+        fail(ipKey(clientIp), props.getMaxFailuresPerIp(), now, true);
+    }
+
+    // the address keeps its count: one good password must not hide a spray over many usernames
+    public void recordSuccess(String username) {
+        attempts.remove(userKey(username));
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        long window = props.getFailureWindowMinutes() * 60_000;
+        attempts.values().removeIf(a -> a.lockedUntil() <= now && a.windowStart() + window <= now);
+    }
+
+    private long lockedUntil(String key, long now) {
+        Attempts a = attempts.get(key);
+        return a != null && a.lockedUntil() > now ? a.lockedUntil() : 0L;
+    }
+
+    private void fail(String key, int limit, long now, boolean trackNew) {
+        long window = props.getFailureWindowMinutes() * 60_000;
+        long lockout = props.getLockoutMinutes() * 60_000;
+        attempts.compute(key, (k, a) -> {
+            if (a == null && !trackNew) return null;
+            if (a == null || a.windowStart() + window <= now) {
+                a = new Attempts(0, now, 0L);
+            }
+            int failures = a.failures() + 1;
+            // the count starts again after a lockout
+            return failures >= limit
+                    ? new Attempts(0, now, now + lockout)
+                    : new Attempts(failures, a.windowStart(), a.lockedUntil());
+        });
+    }
+
+    private static String userKey(String username) {
+        return "u:" + (username == null ? "" : username.toLowerCase());
+    }
+
+    private static String ipKey(String clientIp) {
+        return "ip:" + (clientIp == null ? "" : clientIp);
+    }
+}
@@ -3,6 +3,8 @@ import com.example.jewellery_backend.repository.OrderStatusTypeRepository;
 import com.example.jewellery_backend.repository.PaymentStatusTypeRepository;
 import com.example.jewellery_backend.dto.OrderItemRequestDto;
 import com.example.jewellery_backend.dto.OrderRequestDto;
+import com.example.jewellery_backend.dto.CartValidationResultDto;
+import com.example.jewellery_backend.exception.CartValidationException;
 import com.example.jewellery_backend.entity.*;
 import com.example.jewellery_backend.exception.InsufficientStockException;
 import com.example.jewellery_backend.exception.ResourceNotFoundException;
@@ -13,7 +15,6 @@ import org.springframework.web.multipart.MultipartFile;
 import lombok.RequiredArgsConstructor;
 import com.example.jewellery_backend.Cart;
 import com.example.jewellery_backend.CartItem;
-import jakarta.servlet.http.HttpSession;
 import org.springframework.util.StringUtils;
 import java.util.Objects;
 
@@ -25,6 +26,8 @@ import java.util.*;
 @RequiredArgsConstructor
 public class OrderService {
 
+    public static final String SLIP_NAMESPACE = "slips";
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final ProductRepository productRepository;
@@ -32,61 +35,76 @@ public class OrderService {
     private final FileStorageService fileStorageService;
     private final OrderStatusTypeRepository orderStatusTypeRepository;
     private final PaymentStatusTypeRepository paymentStatusTypeRepository;
+    private final CartStore cartStore;
+    private final ProductSummaryCache productSummaryCache;
+    private final CartValidator cartValidator;
+    private final ProductPricingService productPricingService;
+    private final CartService cartService;
 
 
     // ---------------- Create Order (Admin or Checkout) ----------------
     @Transactional
-    public Order createOrderFromSessionCart(OrderRequestDto customerDetails, MultipartFile slipFile, HttpSession session) {
-        // 1. Get Cart from Session
-        Cart cart = (Cart) session.getAttribute(Cart.SESSION_ATTRIBUTE);
-        if (cart == null || cart.getItemList() == null || cart.getItemList().isEmpty()) {
+    public Order createOrderFromSessionCart(OrderRequestDto customerDetails, MultipartFile slipFile, String cartToken) {
+        // 1. Get Cart from the cart store
+        Cart cart = cartStore.load(cartToken);
+        Cart.Snapshot snapshot = cart == null ? null : cart.snapshot();
+        if (snapshot == null || snapshot.items().isEmpty()) {
             throw new IllegalArgumentException("Cannot create order with an empty cart.");
         }
         if (slipFile == null || slipFile.isEmpty()) {
             throw new IllegalArgumentException("Payment slip is required.");
         }
 
-        // 2. Create Order entity and set customer details
+        // 2. Revalidate the whole cart against current prices and stock (one locking query for all products)
+        Map<Long, Product> products = cartValidator.loadProducts(snapshot, true);
+        BigDecimal goldRate = productPricingService.latestGoldRate();
+        CartValidationResultDto validation = cartValidator.validate(snapshot, products, goldRate);
+        if (!validation.isValid()) {
+            // the cart store saves in its own transaction, so the repriced cart survives the rollback
+            validation.setCart(cartService.applyPriceChanges(cartToken, validation.getChanges()));
+            throw new CartValidationException(validation);
+        }
+
+        // 3. Create Order entity and set customer details
         Order order = new Order();
         order.setUserName(customerDetails.getCustomerName());
         order.setUserEmail(customerDetails.getCustomerEmail());
         order.setUserAddress(customerDetails.getCustomerAddress());
         order.setTelephoneNumber(customerDetails.getTelephoneNumber());
         order.setCreatedAt(LocalDateTime.now());
-        // Remove CartHeader link later if desired (Step 3 below)
 
         BigDecimal subTotal = BigDecimal.ZERO;
         List<OrderItem> orderItems = new ArrayList<>();
 
-        // 3. Process Cart Items -> OrderItems (and update stock)
-        for (CartItem cartItem : cart.getItemList()) {
-            Product product = productRepository.findById(cartItem.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found in cart with id: " + cartItem.getProductId()));
-
+        // 4. Process Cart Items -> OrderItems (and update stock); prices were just checked to be current
+        for (CartItem cartItem : snapshot.itemList()) {
             int qty = cartItem.getQuantity();
             if (qty <= 0) continue; // Skip invalid items
 
-            if (product.getStockQuantity() < qty) {
-                throw new InsufficientStockException("Insufficient stock for product id " + product.getProductId() + " (" + product.getProductName() + ")");
-            }
+            Product product = products.get(cartItem.getProductId());
 
-            // Decrement stock
+            // Decrement stock (the row is locked, the change is flushed with the order)
             product.setStockQuantity(product.getStockQuantity() - qty);
-            productRepository.save(product);
+            productSummaryCache.evict(product.getProductId());
 
             OrderItem orderItem = new OrderItem();
             orderItem.setProduct(product);
             orderItem.setQuantity(qty);
-            BigDecimal unitPrice = cartItem.getUnitPrice() != null ? cartItem.getUnitPrice() : BigDecimal.ZERO;
+            BigDecimal unitPrice = productPricingService.priceOf(product, goldRate);
             orderItem.setUnitPrice(unitPrice);
             orderItem.setTotalPrice(unitPrice.multiply(BigDecimal.valueOf(qty)));
-            // orderItem.setOrder(order); // Will be set after order is saved
+            if (Boolean.TRUE.equals(product.getIsGold()) && product.getGoldPurityKarat() != null) {
+                Map<String, BigDecimal> rates = new HashMap<>();
+                rates.put("gold_rate", goldRate);
+                rates.put("purity", BigDecimal.valueOf(product.getGoldPurityKarat()));
+                orderItem.setMaterialRatesSnapshot(rates);
+            }
 
             orderItems.add(orderItem);
             subTotal = subTotal.add(orderItem.getTotalPrice());
         }
 
-        // 4. Set totals, FETCH default statuses, and save Order
+        // 5. Set totals, FETCH default statuses, and save Order
         order.setOrderItems(new ArrayList<>()); // Initialize collection
         order.setSubtotal(subTotal);
         order.setTaxAmount(BigDecimal.ZERO); // Example
@@ -106,23 +124,23 @@ public class OrderService {
 
         Order savedOrder = orderRepository.save(order); // Save Order first
 
-        // 5. Link and save OrderItems
+        // 6. Link and save OrderItems
         for (OrderItem item : orderItems) {
             item.setOrder(savedOrder);
             orderItemRepository.save(item);
             savedOrder.getOrderItems().add(item); // Add to managed list
         }
 
-        // 6. Store Slip file and create Slip entity
-        String subdir = "slips/order_" + savedOrder.getOrderId();
-        String relativePath = fileStorageService.storeFile(slipFile, subdir);
+        // 7. Store Slip file (content-addressed, checksum computed while streaming) and create Slip entity
+        FileStorageService.StoredFile stored = fileStorageService.storeContentAddressed(slipFile, SLIP_NAMESPACE);
 
         Slip slip = new Slip();
         slip.setOrder(savedOrder);
         slip.setFileName(StringUtils.cleanPath(Objects.requireNonNull(slipFile.getOriginalFilename())));
-        slip.setFilePath(relativePath);
+        slip.setFilePath(stored.relativePath());
+        slip.setChecksum(stored.sha256());
         slip.setFileType(slipFile.getContentType());
-        slip.setFileSize(slipFile.getSize());
+        slip.setFileSize(stored.size());
         slip.setUploadedAt(LocalDateTime.now());
         slip.setPaymentStatus(pendingPaymentStatus); // Assign the fetched pending status
         slip.setVerified(false);
@@ -130,8 +148,8 @@ public class OrderService {
         Slip savedSlip = slipRepository.save(slip);
         savedOrder.getSlips().add(savedSlip); // Add to managed list
 
-        // 7. Clear the session cart
-        session.removeAttribute(Cart.SESSION_ATTRIBUTE);
+        // 8. Clear the cart
+        cartStore.remove(cartToken);
 
         return savedOrder;
     }
@@ -142,24 +160,24 @@ public class OrderService {
     @Transactional
     public Slip uploadSlip(Long orderId, MultipartFile file) {
         Order order = getOrder(orderId);
-        String subdir = "orders/" + order.getOrderId();
-        String relativePath = fileStorageService.storeFile(file, subdir);
+        FileStorageService.StoredFile stored = fileStorageService.storeContentAddressed(file, SLIP_NAMESPACE);
 
-        // Remove previous slip
+        // Remove previous slip (its file once nothing else uses it)
         Slip existing = slipRepository.findByOrder_OrderId(orderId).orElse(null);
         if (existing != null) {
-            if (existing.getFilePath() != null) fileStorageService.delete(existing.getFilePath());
             slipRepository.delete(existing);
         }
 
         Slip slip = new Slip();
         slip.setOrder(order);
         slip.setFileName(file.getOriginalFilename());
-        slip.setFilePath(relativePath);
+        slip.setFilePath(stored.relativePath());
+        slip.setChecksum(stored.sha256());
         slip.setFileType(file.getContentType());
-        slip.setFileSize(file.getSize());
+        slip.setFileSize(stored.size());
         slip.setUploadedAt(LocalDateTime.now());
 
+        // the replaced file is left to UploadCleanupService: the blob may be shared or reused meanwhile
         Slip savedSlip = slipRepository.save(slip);
 
         order.addSlip(savedSlip);
@@ -182,9 +200,9 @@ public class OrderService {
         Order order = getOrder(orderId);
         Slip existing = slipRepository.findByOrder_OrderId(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Slip not found for order id: " + orderId));
-        if (existing.getFilePath() != null) fileStorageService.delete(existing.getFilePath());
         slipRepository.delete(existing);
         order.removeSlip(existing);
+        // the file is removed by UploadCleanupService once no slip has referenced it for the grace period
         // Fetch the 'pending' OrderStatusType from the database
         OrderStatusType pendingOrderStatus = orderStatusTypeRepository.findByOrderStatusName(OrderStatusType.OrderStatus.pending)
                 .orElseThrow(() -> new IllegalStateException("Default 'pending' order status not found in database!"));
@@ -192,6 +210,16 @@ public class OrderService {
         orderRepository.save(order);
     }
 
+    /**
+     * Other slips with the same content (same SHA-256), e.g. one payment slip reused for several orders.
+     */
+    @Transactional(readOnly = true)
+    public List<Slip> findDuplicateSlips(Long orderId) {
+        Slip slip = getSlip(orderId);
+        if (slip.getChecksum() == null) return Collections.emptyList();
+        return slipRepository.findByChecksumAndSlipIdNot(slip.getChecksum(), slip.getSlipId());
+    }
+
     @Transactional(readOnly = true)
     public Slip getSlip(Long orderId) {
         return slipRepository.findByOrder_OrderId(orderId)
@@ -286,6 +314,7 @@ public class OrderService {
             if (p != null) {
                 p.setStockQuantity(p.getStockQuantity() + item.getQuantity());
                 productRepository.save(p);
+                productSummaryCache.evict(p.getProductId());
             }
         }
 
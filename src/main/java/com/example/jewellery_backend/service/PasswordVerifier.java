@@ -0,0 +1,52 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.config.LoginProperties;
+import com.example.jewellery_backend.exception.TooManyLoginAttemptsException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt password checks on a small, bounded pool instead of request threads.
+ * A login burst can therefore use at most verifier-threads cores; requests beyond the queue are
+ * refused at once (429) rather than waiting, and shoppers' requests keep their threads.
+ */
+@Component
+public class PasswordVerifier implements DisposableBean {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder, LoginProperties props) {
+        this.passwordEncoder = passwordEncoder;
+        int threads = Math.max(1, props.getVerifierThreads());
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, props.getVerifierQueueCapacity())),
+                r -> {
+                    Thread t = new Thread(r, "password-verifier-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> rawPassword != null && encodedPassword != null
+                            && passwordEncoder.matches(rawPassword, encodedPassword),
+                    executor);
+        } catch (RejectedExecutionException e) {
+            throw new TooManyLoginAttemptsException("Too many login attempts in progress, please retry", 1);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
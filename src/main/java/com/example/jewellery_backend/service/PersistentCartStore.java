@@ -0,0 +1,214 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.Cart;
+import com.example.jewellery_backend.CartItem;
+import com.example.jewellery_backend.config.CartProperties;
+import com.example.jewellery_backend.dto.ProductSummary;
+import com.example.jewellery_backend.entity.CartHeader;
+import com.example.jewellery_backend.repository.CartHeaderRepository;
+import com.example.jewellery_backend.repository.ProductRepository;
+import com.example.jewellery_backend.util.CartMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Stores carts in cart_header / cart_items keyed by the cart token, so any node can serve any request.
+ * Recently used carts are kept in a small LRU hot tier; a cached cart is only reused while its
+ * version still matches cart_header.version, otherwise it is reloaded.
+ * Callers always get their own copy: a change only reaches the hot tier once save has written it.
+ */
+@Component
+@ConditionalOnProperty(name = "cart.storage", havingValue = "persistent")
+public class PersistentCartStore implements CartStore {
+
+    private final CartHeaderRepository cartHeaderRepository;
+    private final ProductRepository productRepository;
+    private final ProductSummaryCache productSummaryCache;
+
+    private final long idleMillis;
+    private final Map<String, HotEntry> hotTier;
+
+    public PersistentCartStore(CartHeaderRepository cartHeaderRepository,
+                               ProductRepository productRepository,
+                               ProductSummaryCache productSummaryCache,
+                               CartProperties properties) {
+        this.cartHeaderRepository = cartHeaderRepository;
+        this.productRepository = productRepository;
+        this.productSummaryCache = productSummaryCache;
+        this.idleMillis = properties.getHotTierIdleMinutes() * 60_000L;
+
+        int maxEntries = properties.getHotTierMaxEntries();
+        this.hotTier = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, HotEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Cart load(String cartToken) {
+        HotEntry hot = getHot(cartToken);
+        if (hot != null) {
+            Long storedVersion = cartHeaderRepository.findVersionBySessionId(cartToken).orElse(null);
+            if (storedVersion != null && storedVersion.equals(hot.cart.getVersion())) {
+                return hot.cart.copy();
+            }
+            evict(cartToken);
+        }
+
+        Cart cart = cartHeaderRepository.findBySessionId(cartToken)
+                .map(this::toCart)
+                .orElseGet(Cart::new);
+        if (cart.getVersion() != null) putHot(cartToken, cart.copy());
+        return cart;
+    }
+
+    /**
+     * Writes the cart through to the database in its own transaction, so a conflicting
+     * write can be retried by the caller without poisoning the surrounding transaction.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void save(String cartToken, Cart cart) {
+        try {
+            // row lock: saves of the same cart queue up here, on this node and across nodes
+            CartHeader header = cartHeaderRepository.findForUpdateBySessionId(cartToken).orElse(null);
+            if (header == null) {
+                header = CartHeader.builder().sessionId(cartToken).build();
+            } else if (!header.getVersion().equals(cart.getVersion())) {
+                throw new OptimisticLockingFailureException("Cart " + cartToken + " was changed by another request");
+            }
+
+            syncItems(header, cart);
+            // always dirty the header so its version moves even when only lines changed
+            header.setUpdatedAt(LocalDateTime.now());
+
+            CartHeader saved = cartHeaderRepository.saveAndFlush(header);
+            cart.setVersion(saved.getVersion());
+            putHot(cartToken, cart.copy());
+        } catch (RuntimeException e) {
+            evict(cartToken);
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional
+    public void remove(String cartToken) {
+        evict(cartToken);
+        cartHeaderRepository.deleteBySessionId(cartToken);
+    }
+
+    // ---------------- Mapping ----------------
+
+    private Cart toCart(CartHeader header) {
+        Cart cart = new Cart();
+        cart.setVersion(header.getVersion());
+
+        // names and images come from the summary cache, so the products themselves are never loaded here
+        Set<Long> productIds = header.getItems().stream()
+                .map(row -> row.getProduct().getProductId())
+                .collect(Collectors.toSet());
+        Map<Long, ProductSummary> summaries = productSummaryCache.getAll(productIds);
+
+        for (com.example.jewellery_backend.entity.CartItem row : header.getItems()) {
+            Long productId = row.getProduct().getProductId();
+            ProductSummary summary = summaries.get(productId);
+            if (summary == null) continue; // product deleted since the line was stored
+
+            cart.addItem(CartItem.builder()
+                    .itemKey(CartMapper.makeItemKey(productId, row.getAttributeValueId()))
+                    .productId(productId)
+                    .attributeValueId(row.getAttributeValueId())
+                    .productName(summary.getProductName())
+                    .quantity(row.getQuantity())
+                    .unitPrice(row.getUnitPrice() != null ? row.getUnitPrice() : summary.getPrice())
+                    .imageUrl(summary.getImageUrl())
+                    .imageAlt(summary.getImageAlt())
+                    .build());
+        }
+        return cart;
+    }
+
+    private void syncItems(CartHeader header, Cart cart) {
+        Map<String, CartItem> lines = cart.getItems();
+
+        // drop rows no longer in the cart, update the rest in place
+        header.getItems().removeIf(row -> !lines.containsKey(keyOf(row)));
+        Map<String, com.example.jewellery_backend.entity.CartItem> rows = new HashMap<>();
+        for (com.example.jewellery_backend.entity.CartItem row : header.getItems()) {
+            rows.put(keyOf(row), row);
+        }
+
+        for (CartItem line : lines.values()) {
+            com.example.jewellery_backend.entity.CartItem row = rows.get(line.getItemKey());
+            if (row == null) {
+                row = com.example.jewellery_backend.entity.CartItem.builder()
+                        .cartHeader(header)
+                        .product(productRepository.getReferenceById(line.getProductId()))
+                        .attributeValueId(line.getAttributeValueId())
+                        .build();
+                header.getItems().add(row);
+            }
+            row.setQuantity(line.getQuantity());
+            row.setUnitPrice(line.getUnitPrice());
+        }
+    }
+
+    private String keyOf(com.example.jewellery_backend.entity.CartItem row) {
+        return CartMapper.makeItemKey(row.getProduct().getProductId(), row.getAttributeValueId());
+    }
+
+    // ---------------- Hot tier ----------------
+
+    private HotEntry getHot(String cartToken) {
+        synchronized (hotTier) {
+            HotEntry hot = hotTier.get(cartToken);
+            if (hot == null) return null;
+            long now = System.currentTimeMillis();
+            if (now - hot.lastAccess > idleMillis) {
+                hotTier.remove(cartToken);
+                return null;
+            }
+            hot.lastAccess = now;
+            return hot;
+        }
+    }
+
+    private void putHot(String cartToken, Cart cart) {
+        synchronized (hotTier) {
+            // access order puts the least recently used carts first, so idle ones are trimmed from the head
+            long cutoff = System.currentTimeMillis() - idleMillis;
+            Iterator<HotEntry> it = hotTier.values().iterator();
+            while (it.hasNext() && it.next().lastAccess < cutoff) {
+                it.remove();
+            }
+            hotTier.put(cartToken, new HotEntry(cart));
+        }
+    }
+
+    private void evict(String cartToken) {
+        synchronized (hotTier) {
+            hotTier.remove(cartToken);
+        }
+    }
+
+    private static final class HotEntry {
+        private final Cart cart;
+        private long lastAccess;
+
+        private HotEntry(Cart cart) {
+            this.cart = cart;
+            this.lastAccess = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.dto.ProductImageDto;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+public interface ProductImageService {
+    ProductImageDto uploadImage(Long productId, MultipartFile file, String altText, boolean isPrimary, Integer sortOrder);
+    List<ProductImageDto> getImages(Long productId);
+    void deleteImage(Long productId, Long imageId);
+}
@@ -0,0 +1,333 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.dto.ProductImportResultDto;
+import com.example.jewellery_backend.dto.ProductImportResultDto.RowError;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.util.*;
+
+/**
+ * Bulk product import from CSV or NDJSON, upserting by sku.
+ * The body is parsed row by row while it is read, so the file is never held in memory; rows are written
+ * in batches by ProductImportWriter. A row that cannot be parsed or fails validation is reported with its
+ * line number and skipped, the rest of the file is still imported.
+ * <p>
+ * Field names are those of CreateUpdateProductRequest, plus categoryIds (CSV: ids separated by "|").
+ * Fields that are missing or empty keep the current value of an existing product; categoryIds replaces
+ * the product's categories when present.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final Set<String> COLUMNS = Set.of("sku", "productName", "description", "basePrice",
+            "markupPercentage", "weight", "dimensions", "stockQuantity", "minStockLevel", "isActive", "featured",
+            "isGold", "goldWeightGrams", "goldPurityKarat", "categoryIds");
+
+    /**
+     * One product of the file. line is set by the parser, not read from the file.
+     */
+    public record Row(int line, String sku, String productName, String description,
+                      BigDecimal basePrice, BigDecimal markupPercentage, BigDecimal weight, String dimensions,
+                      Integer stockQuantity, Integer minStockLevel, Boolean isActive, Boolean featured,
+                      Boolean isGold, BigDecimal goldWeightGrams, Integer goldPurityKarat, List<Long> categoryIds) {
+
+        Row atLine(int line) {
+            return new Row(line, sku == null ? null : sku.trim(), productName, description, basePrice,
+                    markupPercentage, weight, dimensions, stockQuantity, minStockLevel, isActive, featured,
+                    isGold, goldWeightGrams, goldPurityKarat, categoryIds);
+        }
+    }
+
+    private final ProductImportWriter writer;
+    private final ObjectMapper objectMapper;
+    private final ProductSummaryCache productSummaryCache;
+    private final CategoryProductCounts categoryProductCounts;
+
+    public ProductImportService(ProductImportWriter writer,
+                                ObjectMapper objectMapper,
+                                ProductSummaryCache productSummaryCache,
+                                CategoryProductCounts categoryProductCounts) {
+        this.writer = writer;
+        this.objectMapper = objectMapper;
+        this.productSummaryCache = productSummaryCache;
+        this.categoryProductCounts = categoryProductCounts;
+    }
+
+    public ProductImportResultDto importProducts(InputStream in, Format format, Charset charset) throws IOException {
+        Import run = new Import();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, charset), 64 * 1024);
+        try {
+            if (format == Format.CSV) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+            run.flush();
+        } finally {
+            if (run.result.getInserted() + run.result.getUpdated() > 0) {
+                // caches see the imported products without waiting for their refresh
+                productSummaryCache.evictAll();
+                categoryProductCounts.reload();
+            }
+        }
+        log.info("Product import: {} rows, {} inserted, {} updated, {} failed", run.result.getRows(),
+                run.result.getInserted(), run.result.getUpdated(), run.result.getFailed());
+        return run.result;
+    }
+
+    // ---------------- Parsing ----------------
+
+    private void readNdjson(BufferedReader reader, Import run) throws IOException {
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (lineNo == 1) line = stripBom(line);
+            if (line.isBlank()) continue;
+            try {
+                run.add(objectMapper.readValue(line, Row.class).atLine(lineNo));
+            } catch (JsonProcessingException e) {
+                run.fail(lineNo, null, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, Import run) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) return;
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = i == 0 ? stripBom(header.get(i)).trim() : header.get(i).trim();
+            if (!COLUMNS.contains(name)) throw new IllegalArgumentException("Unknown column: " + name);
+            columns.put(name, i);
+        }
+        if (!columns.containsKey("sku")) throw new IllegalArgumentException("Column sku is required");
+
+        List<String> values;
+        while (true) {
+            try {
+                values = csv.next();
+            } catch (IllegalArgumentException e) {
+                // the rest of the file cannot be split into records
+                run.fail(csv.recordLine, null, e.getMessage());
+                return;
+            }
+            if (values == null) return;
+            int lineNo = csv.recordLine;
+            if (values.size() == 1 && values.get(0).isBlank()) continue;
+            CsvRow r = new CsvRow(columns, values);
+            try {
+                run.add(new Row(lineNo, r.text("sku"), r.text("productName"), r.text("description"),
+                        r.decimal("basePrice"), r.decimal("markupPercentage"), r.decimal("weight"),
+                        r.text("dimensions"), r.integer("stockQuantity"), r.integer("minStockLevel"),
+                        r.bool("isActive"), r.bool("featured"), r.bool("isGold"), r.decimal("goldWeightGrams"),
+                        r.integer("goldPurityKarat"), r.ids("categoryIds")).atLine(lineNo));
+            } catch (IllegalArgumentException e) {
+                run.fail(lineNo, r.text("sku"), e.getMessage());
+            }
+        }
+    }
+
+    private static String stripBom(String s) {
+        return !s.isEmpty() && s.charAt(0) == '\uFEFF' ? s.substring(1) : s;
+    }
+
+    /**
+     * Cells of one CSV record by column name; empty cells are null.
+     */
+    private record CsvRow(Map<String, Integer> columns, List<String> values) {
+
+        String text(String column) {
+            Integer i = columns.get(column);
+            if (i == null || i >= values.size()) return null;
+            String v = values.get(i);
+            return v.isBlank() ? null : v;
+        }
+
+        BigDecimal decimal(String column) {
+            String v = text(column);
+            try {
+                return v == null ? null : new BigDecimal(v.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(column + " is not a number: " + v);
+            }
+        }
+
+        Integer integer(String column) {
+            String v = text(column);
+            try {
+                return v == null ? null : Integer.valueOf(v.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(column + " is not a whole number: " + v);
+            }
+        }
+
+        Boolean bool(String column) {
+            String v = text(column);
+            if (v == null) return null;
+            return switch (v.trim().toLowerCase(Locale.ROOT)) {
+                case "true", "1", "yes" -> true;
+                case "false", "0", "no" -> false;
+                default -> throw new IllegalArgumentException(column + " is not true/false: " + v);
+            };
+        }
+
+        List<Long> ids(String column) {
+            String v = text(column);
+            if (v == null) return null;
+            List<Long> ids = new ArrayList<>();
+            for (String part : v.split("\\|")) {
+                if (part.isBlank()) continue;
+                try {
+                    ids.add(Long.valueOf(part.trim()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(column + " contains an invalid id: " + part);
+                }
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Minimal RFC 4180 reader: quoted cells may contain commas, doubled quotes and line breaks.
+     */
+    private static final class CsvReader {
+        private final BufferedReader in;
+        private int line;
+        int recordLine;  // line on which the last record started
+
+        CsvReader(BufferedReader in) {
+            this.in = in;
+        }
+
+        // cells of the next record, null at the end of the input
+        List<String> next() throws IOException {
+            String text = in.readLine();
+            if (text == null) return null;
+            line++;
+            recordLine = line;
+            List<String> cells = new ArrayList<>();
+            StringBuilder cell = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == text.length()) {
+                    if (!quoted) break;
+                    // line break inside a quoted cell
+                    text = in.readLine();
+                    if (text == null) throw new IllegalArgumentException("Unterminated quote in record on line " + recordLine);
+                    line++;
+                    cell.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = text.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        cell.append(c);
+                    } else if (i < text.length() && text.charAt(i) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                } else {
+                    cell.append(c);
+                }
+            }
+            cells.add(cell.toString());
+            return cells;
+        }
+    }
+
+    // ---------------- Batching ----------------
+
+    /**
+     * State of one import: the batch being collected and the running result.
+     */
+    private final class Import {
+        private final ProductImportResultDto result = new ProductImportResultDto();
+        private final Map<String, Row> batch = new LinkedHashMap<>();
+
+        void add(Row row) {
+            result.setRows(result.getRows() + 1);
+            if (row.sku() == null || row.sku().isEmpty()) {
+                recordError(new RowError(row.line(), null, "sku is required"));
+                return;
+            }
+            if (row.sku().length() > 100) {
+                recordError(new RowError(row.line(), row.sku(), "sku is longer than 100 characters"));
+                return;
+            }
+            // a sku repeated in the file (as the database compares skus): write the earlier row first
+            // so the later one wins
+            String key = ProductImportWriter.skuKey(row.sku());
+            if (batch.containsKey(key)) flush();
+            batch.put(key, row);
+            if (batch.size() >= BATCH_SIZE) flush();
+        }
+
+        // a row that could not be parsed
+        void fail(int line, String sku, String message) {
+            result.setRows(result.getRows() + 1);
+            recordError(new RowError(line, sku, message));
+        }
+
+        void flush() {
+            if (batch.isEmpty()) return;
+            List<Row> rows = new ArrayList<>(batch.values());
+            batch.clear();
+            try {
+                apply(writer.write(rows));
+            } catch (DataAccessException e) {
+                // e.g. a sku inserted concurrently: find the offending rows one by one
+                log.warn("Import batch failed, retrying its {} rows one by one: {}", rows.size(),
+                        e.getMostSpecificCause().getMessage());
+                for (Row row : rows) {
+                    try {
+                        apply(writer.write(List.of(row)));
+                    } catch (DataAccessException rowError) {
+                        recordError(new RowError(row.line(), row.sku(), rowError.getMostSpecificCause().getMessage()));
+                    }
+                }
+            }
+        }
+
+        private void apply(ProductImportWriter.Result written) {
+            result.setInserted(result.getInserted() + written.inserted());
+            result.setUpdated(result.getUpdated() + written.updated());
+            written.errors().forEach(this::recordError);
+        }
+
+        private void recordError(RowError error) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                result.getErrors().add(error);
+            } else {
+                result.setErrorsTruncated(true);
+            }
+        }
+    }
+}
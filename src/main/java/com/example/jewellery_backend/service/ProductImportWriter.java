@@ -0,0 +1,216 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.dto.ProductImportResultDto.RowError;
+import com.example.jewellery_backend.repository.CategoryRepository;
+import com.example.jewellery_backend.repository.ProductRepository;
+import com.example.jewellery_backend.service.ProductImportService.Row;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Writes one batch of import rows in its own transaction: one sku lookup, one category lookup,
+ * then JDBC batches for the inserts, the updates and the category links.
+ * Invalid rows are reported and left out; the rest of the batch is written.
+ */
+@Component
+public class ProductImportWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO products " +
+            "(sku, product_name, description, base_price, markup_percentage, weight, dimensions, stock_quantity, " +
+            "min_stock_level, is_active, featured, is_gold, gold_weight_grams, gold_purity_karat) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // columns missing from the row keep their current value
+    private static final String UPDATE_SQL = "UPDATE products SET " +
+            "product_name = COALESCE(?, product_name), description = COALESCE(?, description), " +
+            "base_price = COALESCE(?, base_price), markup_percentage = COALESCE(?, markup_percentage), " +
+            "weight = COALESCE(?, weight), dimensions = COALESCE(?, dimensions), " +
+            "stock_quantity = COALESCE(?, stock_quantity), min_stock_level = COALESCE(?, min_stock_level), " +
+            "is_active = COALESCE(?, is_active), featured = COALESCE(?, featured), is_gold = COALESCE(?, is_gold), " +
+            "gold_weight_grams = COALESCE(?, gold_weight_grams), gold_purity_karat = COALESCE(?, gold_purity_karat) " +
+            "WHERE product_id = ?";
+
+    private static final String LINK_SQL = "INSERT INTO product_categories (product_id, category_id) VALUES (?, ?)";
+
+    public record Result(int inserted, int updated, List<RowError> errors) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+
+    public ProductImportWriter(JdbcTemplate jdbcTemplate,
+                               ProductRepository productRepository,
+                               CategoryRepository categoryRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Rows must have distinct skus by {@link #skuKey}.
+     */
+    @Transactional
+    public Result write(List<Row> rows) {
+        List<RowError> errors = new ArrayList<>();
+        // keyed by skuKey: the sku column compares case-, accent- and trailing-space-insensitively
+        Map<String, Long> existing = idsBySku(rows.stream().map(Row::sku).toList());
+
+        Set<Long> categoryIds = new HashSet<>();
+        for (Row r : rows) {
+            if (r.categoryIds() != null) categoryIds.addAll(r.categoryIds());
+        }
+        Set<Long> knownCategories = categoryIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(categoryRepository.findExistingIds(categoryIds));
+
+        List<Row> inserts = new ArrayList<>();
+        List<Row> updates = new ArrayList<>();
+        for (Row r : rows) {
+            boolean exists = existing.containsKey(skuKey(r.sku()));
+            String problem = validate(r, exists, knownCategories);
+            if (problem != null) {
+                errors.add(new RowError(r.line(), r.sku(), problem));
+            } else if (exists) {
+                updates.add(r);
+            } else {
+                inserts.add(r);
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts, inserts.size(), this::bindInsert);
+            existing.putAll(idsBySku(inserts.stream().map(Row::sku).toList()));
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates, updates.size(),
+                    (ps, r) -> bindUpdate(ps, r, existing.get(skuKey(r.sku()))));
+        }
+        linkCategories(inserts, updates, existing);
+        return new Result(inserts.size(), updates.size(), errors);
+    }
+
+    private Map<String, Long> idsBySku(Collection<String> skus) {
+        Map<String, Long> ids = new HashMap<>();
+        for (Object[] row : productRepository.findIdsBySkuIn(skus)) {
+            ids.put(skuKey((String) row[0]), ((Number) row[1]).longValue());
+        }
+        return ids;
+    }
+
+    /**
+     * The sku as the unique index compares it (utf8mb4_unicode_ci: case and accents ignored,
+     * trailing spaces padded), so a stored "RING-01 " is found for an imported "ring-01".
+     */
+    static String skuKey(String sku) {
+        String s = sku.stripTrailing();
+        s = Normalizer.normalize(s, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return s.toLowerCase(Locale.ROOT);
+    }
+
+    // rows without categoryIds keep their links; an empty list removes them
+    private void linkCategories(List<Row> inserts, List<Row> updates, Map<String, Long> ids) {
+        List<Long> replaced = new ArrayList<>();
+        List<long[]> links = new ArrayList<>();
+        for (List<Row> group : List.of(inserts, updates)) {
+            for (Row r : group) {
+                if (r.categoryIds() == null) continue;
+                Long productId = ids.get(skuKey(r.sku()));
+                if (group == updates) replaced.add(productId);
+                for (Long categoryId : new LinkedHashSet<>(r.categoryIds())) {
+                    links.add(new long[]{productId, categoryId});
+                }
+            }
+        }
+        if (!replaced.isEmpty()) {
+            String placeholders = String.join(",", Collections.nCopies(replaced.size(), "?"));
+            jdbcTemplate.update("DELETE FROM product_categories WHERE product_id IN (" + placeholders + ")",
+                    replaced.toArray());
+        }
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate(LINK_SQL, links, links.size(), (ps, link) -> {
+                ps.setLong(1, link[0]);
+                ps.setLong(2, link[1]);
+            });
+        }
+    }
+
+    private String validate(Row r, boolean exists, Set<Long> knownCategories) {
+        if (!exists && (r.productName() == null || r.productName().isBlank())) {
+            return "productName is required for a new product";
+        }
+        if (r.productName() != null && r.productName().length() > 200) return "productName is longer than 200 characters";
+        if (r.dimensions() != null && r.dimensions().length() > 100) return "dimensions is longer than 100 characters";
+        if (negative(r.basePrice())) return "basePrice must not be negative";
+        if (negative(r.markupPercentage())) return "markupPercentage must not be negative";
+        if (negative(r.weight())) return "weight must not be negative";
+        if (negative(r.goldWeightGrams())) return "goldWeightGrams must not be negative";
+        if (r.stockQuantity() != null && r.stockQuantity() < 0) return "stockQuantity must not be negative";
+        if (r.minStockLevel() != null && r.minStockLevel() < 0) return "minStockLevel must not be negative";
+        if (r.goldPurityKarat() != null && (r.goldPurityKarat() < 1 || r.goldPurityKarat() > 24)) {
+            return "goldPurityKarat must be between 1 and 24";
+        }
+        if (r.categoryIds() != null) {
+            for (Long id : r.categoryIds()) {
+                if (id == null || !knownCategories.contains(id)) return "Category not found: " + id;
+            }
+        }
+        return null;
+    }
+
+    private static boolean negative(BigDecimal value) {
+        return value != null && value.signum() < 0;
+    }
+
+    // new products get the entity defaults for missing columns
+    private void bindInsert(PreparedStatement ps, Row r) throws SQLException {
+        ps.setString(1, r.sku());
+        ps.setString(2, r.productName());
+        ps.setString(3, r.description());
+        ps.setBigDecimal(4, r.basePrice() != null ? r.basePrice() : BigDecimal.ZERO);
+        ps.setBigDecimal(5, r.markupPercentage() != null ? r.markupPercentage() : BigDecimal.ZERO);
+        ps.setBigDecimal(6, r.weight());
+        ps.setString(7, r.dimensions());
+        ps.setInt(8, r.stockQuantity() != null ? r.stockQuantity() : 0);
+        ps.setInt(9, r.minStockLevel() != null ? r.minStockLevel() : 5);
+        ps.setBoolean(10, r.isActive() != null ? r.isActive() : true);
+        ps.setBoolean(11, r.featured() != null && r.featured());
+        ps.setBoolean(12, r.isGold() != null && r.isGold());
+        ps.setBigDecimal(13, r.goldWeightGrams());
+        setInt(ps, 14, r.goldPurityKarat());
+    }
+
+    private void bindUpdate(PreparedStatement ps, Row r, Long productId) throws SQLException {
+        ps.setString(1, r.productName());
+        ps.setString(2, r.description());
+        ps.setBigDecimal(3, r.basePrice());
+        ps.setBigDecimal(4, r.markupPercentage());
+        ps.setBigDecimal(5, r.weight());
+        ps.setString(6, r.dimensions());
+        setInt(ps, 7, r.stockQuantity());
+        setInt(ps, 8, r.minStockLevel());
+        setBoolean(ps, 9, r.isActive());
+        setBoolean(ps, 10, r.featured());
+        setBoolean(ps, 11, r.isGold());
+        ps.setBigDecimal(12, r.goldWeightGrams());
+        setInt(ps, 13, r.goldPurityKarat());
+        ps.setLong(14, productId);
+    }
+
+    private static void setInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) ps.setNull(index, Types.INTEGER);
+        else ps.setInt(index, value);
+    }
+
+    private static void setBoolean(PreparedStatement ps, int index, Boolean value) throws SQLException {
+        if (value == null) ps.setNull(index, Types.BOOLEAN);
+        else ps.setBoolean(index, value);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.entity.GoldRate;
+import com.example.jewellery_backend.entity.Product;
+import com.example.jewellery_backend.repository.GoldRateRepository;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Current selling price of a product, using the same rule as calculate_product_price in the schema:
+ * (base_price + gold_weight_grams * karat / 24 * latest gold rate) * (1 + markup_percentage / 100).
+ */
+@Service
+public class ProductPricingService {
+
+    private static final BigDecimal KARAT_24 = BigDecimal.valueOf(24);
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final GoldRateRepository goldRateRepository;
+
+    public ProductPricingService(GoldRateRepository goldRateRepository) {
+        this.goldRateRepository = goldRateRepository;
+    }
+
+    /**
+     * Latest gold rate per gram, or zero if none has been entered yet.
+     * Load it once and pass it to priceOf when pricing several products.
+     */
+    public BigDecimal latestGoldRate() {
+        return goldRateRepository.findTopByOrderByEffectiveDateDesc()
+                .map(GoldRate::getRate)
+                .orElse(BigDecimal.ZERO);
+    }
+
+    public BigDecimal priceOf(Product p, BigDecimal goldRate) {
+        BigDecimal base = p.getBasePrice() != null ? p.getBasePrice() : BigDecimal.ZERO;
+        BigDecimal materialCost = BigDecimal.ZERO;
+        if (Boolean.TRUE.equals(p.getIsGold())
+                && p.getGoldWeightGrams() != null && p.getGoldWeightGrams().signum() > 0
+                && p.getGoldPurityKarat() != null) {
+            materialCost = p.getGoldWeightGrams()
+                    .multiply(BigDecimal.valueOf(p.getGoldPurityKarat()))
+                    .multiply(goldRate)
+                    .divide(KARAT_24, 4, RoundingMode.HALF_UP);
+        }
+        BigDecimal markup = p.getMarkupPercentage() != null ? p.getMarkupPercentage() : BigDecimal.ZERO;
+        BigDecimal factor = BigDecimal.ONE.add(markup.divide(HUNDRED, 6, RoundingMode.HALF_UP));
+        return base.add(materialCost).multiply(factor).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.dto.BulkRepriceRequest;
+import com.example.jewellery_backend.dto.BulkRepriceResultDto;
+import com.example.jewellery_backend.exception.ResourceNotFoundException;
+import com.example.jewellery_backend.repository.CategoryRepository;
+import com.example.jewellery_backend.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Changes basePrice or markupPercentage of many products at once.
+ * The matching product ids are collected first (in id order); then each chunk of ids is updated with
+ * one UPDATE statement in its own short transaction, so row locks are held only briefly and no entities are loaded.
+ * Products that start matching while the update runs are not included.
+ * <p>
+ * A percentage adjustment is not idempotent, so a failed chunk stops the run and the result reports the last
+ * product id already changed; the caller resumes with afterProductId instead of repeating the whole request.
+ * Resulting prices are checked against the column limit before anything is written.
+ */
+@Slf4j
+@Service
+public class ProductRepricingService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int PREVIEW_SIZE = 50;
+
+    // limits of the entity columns (precision 10 and 5, scale 2)
+    private static final BigDecimal MAX_BASE_PRICE = new BigDecimal("99999999.99");
+    private static final BigDecimal MAX_MARKUP = new BigDecimal("999.99");
+    private static final BigDecimal MIN_PERCENT = BigDecimal.valueOf(-100);
+    private static final BigDecimal MAX_PERCENT = BigDecimal.valueOf(1000);
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final FilterService filterService;
+    private final ProductSummaryCache productSummaryCache;
+
+    public ProductRepricingService(ProductRepository productRepository,
+                                   CategoryRepository categoryRepository,
+                                   FilterService filterService,
+                                   ProductSummaryCache productSummaryCache) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.filterService = filterService;
+        this.productSummaryCache = productSummaryCache;
+    }
+
+    public BulkRepriceResultDto reprice(BulkRepriceRequest request) {
+        BigDecimal value = validate(request);
+        List<Long> ids = matchingIds(request);
+
+        BulkRepriceResultDto result = new BulkRepriceResultDto();
+        result.setMatched(ids.size());
+        result.setDryRun(request.isDryRun());
+        result.setLastProductId(request.getAfterProductId());
+        if (!ids.isEmpty()) {
+            result.setPreview(preview(ids.subList(0, Math.min(PREVIEW_SIZE, ids.size())), request.getMode(), value));
+        }
+        if (request.getMode() == BulkRepriceRequest.Mode.ADJUST_BASE_PRICE_PERCENT) {
+            checkAdjustedPrices(ids, value);
+        }
+        if (request.isDryRun()) {
+            result.setComplete(true);
+            return result;
+        }
+
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            try {
+                updated += switch (request.getMode()) {
+                    case SET_BASE_PRICE -> productRepository.setBasePrice(chunk, value);
+                    case ADJUST_BASE_PRICE_PERCENT -> productRepository.adjustBasePrice(chunk, value);
+                    case SET_MARKUP -> productRepository.setMarkupPercentage(chunk, value);
+                };
+            } catch (DataAccessException e) {
+                // earlier chunks are committed: report how far the run got instead of failing the request
+                log.warn("Bulk reprice {} {} stopped after product {}", request.getMode(), value,
+                        result.getLastProductId(), e);
+                result.setUpdated(updated);
+                result.setError(e.getMostSpecificCause().getMessage());
+                return result;
+            }
+            chunk.forEach(productSummaryCache::evict);
+            result.setLastProductId(chunk.get(chunk.size() - 1));
+        }
+        result.setUpdated(updated);
+        result.setComplete(true);
+        log.info("Bulk reprice {} {}: {} products updated", request.getMode(), value, updated);
+        return result;
+    }
+
+    // the highest current price must still fit the column after the adjustment
+    private void checkAdjustedPrices(List<Long> ids, BigDecimal percent) {
+        BigDecimal max = null;
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            BigDecimal chunkMax = productRepository.findMaxBasePrice(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+            if (chunkMax != null && (max == null || chunkMax.compareTo(max) > 0)) max = chunkMax;
+        }
+        if (max != null && adjust(max, percent).compareTo(MAX_BASE_PRICE) > 0) {
+            throw new IllegalArgumentException("Adjusting by " + percent + "% would raise the price " + max
+                    + " above " + MAX_BASE_PRICE);
+        }
+    }
+
+    private static BigDecimal adjust(BigDecimal basePrice, BigDecimal percent) {
+        return basePrice.multiply(BigDecimal.valueOf(100).add(percent)).movePointLeft(2).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private BigDecimal validate(BulkRepriceRequest request) {
+        if (request.getMode() == null) throw new IllegalArgumentException("mode is required");
+        if (request.getValue() == null) throw new IllegalArgumentException("value is required");
+        if ((request.getCategoryId() == null) == (request.getFilter() == null)) {
+            throw new IllegalArgumentException("Exactly one of categoryId and filter is required");
+        }
+        BigDecimal value = request.getValue().setScale(2, RoundingMode.HALF_UP);
+        switch (request.getMode()) {
+            case SET_BASE_PRICE -> checkRange(value, BigDecimal.ZERO, MAX_BASE_PRICE, "basePrice");
+            case ADJUST_BASE_PRICE_PERCENT -> checkRange(value, MIN_PERCENT, MAX_PERCENT, "percentage");
+            case SET_MARKUP -> checkRange(value, BigDecimal.ZERO, MAX_MARKUP, "markupPercentage");
+        }
+        return value;
+    }
+
+    private static void checkRange(BigDecimal value, BigDecimal min, BigDecimal max, String name) {
+        if (value.compareTo(min) < 0 || value.compareTo(max) > 0) {
+            throw new IllegalArgumentException(name + " must be between " + min + " and " + max);
+        }
+    }
+
+    // ascending ids, after the resume point if there is one
+    private List<Long> matchingIds(BulkRepriceRequest request) {
+        List<Long> ids;
+        if (request.getCategoryId() != null) {
+            if (!categoryRepository.existsById(request.getCategoryId())) {
+                throw new ResourceNotFoundException("Category", "id", request.getCategoryId());
+            }
+            ids = productRepository.findIdsInCategorySubtree(request.getCategoryId());
+        } else {
+            ids = filterService.findMatchingIds(request.getFilter());
+        }
+        Long after = request.getAfterProductId();
+        return after == null ? ids : ids.stream().filter(id -> id > after).toList();
+    }
+
+    // new values computed the way the UPDATE computes them (ROUND to 2 decimals, half up)
+    private List<BulkRepriceResultDto.Item> preview(List<Long> ids, BulkRepriceRequest.Mode mode, BigDecimal value) {
+        List<BulkRepriceResultDto.Item> items = new ArrayList<>();
+        for (Object[] row : productRepository.findPricesByProductIdIn(ids)) {
+            BigDecimal basePrice = (BigDecimal) row[3];
+            BigDecimal markup = (BigDecimal) row[4];
+            BigDecimal newBasePrice = switch (mode) {
+                case SET_BASE_PRICE -> value;
+                case ADJUST_BASE_PRICE_PERCENT -> basePrice == null ? null : adjust(basePrice, value);
+                case SET_MARKUP -> basePrice;
+            };
+            BigDecimal newMarkup = mode == BulkRepriceRequest.Mode.SET_MARKUP ? value : markup;
+            items.add(new BulkRepriceResultDto.Item((Long) row[0], (String) row[1], (String) row[2],
+                    basePrice, newBasePrice, markup, newMarkup));
+        }
+        return items;
+    }
+}
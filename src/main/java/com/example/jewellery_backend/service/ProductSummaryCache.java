@@ -0,0 +1,145 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.dto.ProductSummary;
+import com.example.jewellery_backend.entity.Product;
+import com.example.jewellery_backend.entity.ProductImage;
+import com.example.jewellery_backend.repository.ProductImageRepository;
+import com.example.jewellery_backend.repository.ProductRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cache of ProductSummary so cart operations don't hit products / product_images.
+ * Entries are evicted on product and image writes; the TTL bounds staleness from writes made on other nodes.
+ */
+@Component
+public class ProductSummaryCache {
+
+    private static final long TTL_MILLIS = 60_000;
+    private static final int MAX_ENTRIES = 20_000;
+
+    private final ProductRepository productRepository;
+    private final ProductImageRepository productImageRepository;
+    private final ProductPricingService productPricingService;
+
+    private final Map<Long, Entry> cache = new ConcurrentHashMap<>();
+    // bumped on every eviction; a load that raced with an eviction is not cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ProductSummaryCache(ProductRepository productRepository,
+                               ProductImageRepository productImageRepository,
+                               ProductPricingService productPricingService) {
+        this.productRepository = productRepository;
+        this.productImageRepository = productImageRepository;
+        this.productPricingService = productPricingService;
+    }
+
+    public Optional<ProductSummary> get(Long productId) {
+        return Optional.ofNullable(getAll(List.of(productId)).get(productId));
+    }
+
+    /**
+     * Summaries for the given ids; missing products are absent from the result.
+     * All cache misses are loaded together with one product and one image query.
+     */
+    public Map<Long, ProductSummary> getAll(Collection<Long> productIds) {
+        Map<Long, ProductSummary> result = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        long now = System.currentTimeMillis();
+        for (Long id : productIds) {
+            Entry e = cache.get(id);
+            if (e != null && now - e.loadedAt < TTL_MILLIS) {
+                result.put(id, e.summary);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) return result;
+
+        long evictionsBefore = evictions.get();
+        List<ProductSummary> loaded = load(missing);
+        boolean cacheable = evictions.get() == evictionsBefore;
+        if (cacheable && cache.size() + loaded.size() > MAX_ENTRIES) cache.clear();
+        for (ProductSummary s : loaded) {
+            if (cacheable) cache.put(s.getProductId(), new Entry(s, now));
+            result.put(s.getProductId(), s);
+        }
+        return result;
+    }
+
+    /**
+     * Drops the product now and again once the surrounding transaction commits,
+     * so a read racing with the write cannot re-cache the old values.
+     */
+    public void evict(Long productId) {
+        if (productId == null) return;
+        evictNow(productId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(productId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drops every entry, e.g. when a new gold rate changes the price of all gold products.
+     */
+    public void evictAll() {
+        evictions.incrementAndGet();
+        cache.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictions.incrementAndGet();
+                    cache.clear();
+                }
+            });
+        }
+    }
+
+    private void evictNow(Long productId) {
+        evictions.incrementAndGet();
+        cache.remove(productId);
+    }
+
+    private List<ProductSummary> load(Collection<Long> productIds) {
+        // primary image if there is one, otherwise the first by sort order
+        Map<Long, ProductImage> images = new HashMap<>();
+        for (ProductImage img : productImageRepository.findByProduct_ProductIdInOrderBySortOrderAsc(productIds)) {
+            Long pid = img.getProduct().getProductId();
+            ProductImage current = images.get(pid);
+            if (current == null || (!Boolean.TRUE.equals(current.getIsPrimary()) && Boolean.TRUE.equals(img.getIsPrimary()))) {
+                images.put(pid, img);
+            }
+        }
+
+        BigDecimal goldRate = productPricingService.latestGoldRate();
+        List<ProductSummary> summaries = new ArrayList<>();
+        for (Product p : productRepository.findAllById(productIds)) {
+            ProductImage img = images.get(p.getProductId());
+            summaries.add(ProductSummary.builder()
+                    .productId(p.getProductId())
+                    .productName(p.getProductName())
+                    .price(productPricingService.priceOf(p, goldRate))
+                    // small rendition for cart lines once it exists
+                    .imageUrl(img == null ? null : img.getThumbUrl() != null ? img.getThumbUrl() : img.getImageUrl())
+                    .imageAlt(img != null ? img.getAltText() : null)
+                    .active(!Boolean.FALSE.equals(p.getIsActive()))
+                    .stockQuantity(p.getStockQuantity() != null ? p.getStockQuantity() : 0)
+                    .build());
+        }
+        return summaries;
+    }
+
+    private record Entry(ProductSummary summary, long loadedAt) {}
+}
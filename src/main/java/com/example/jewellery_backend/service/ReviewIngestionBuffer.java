@@ -0,0 +1,278 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.config.ReviewIngestionProperties;
+import com.example.jewellery_backend.exception.ReviewQueueFullException;
+import com.example.jewellery_backend.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind intake for new reviews (reviews.ingestion.mode=buffered).
+ * Requests check the product against an in-memory id set and only enqueue; one background thread
+ * writes the queue to the reviews table with JDBC batch inserts. When the queue is full, requests
+ * are turned away instead of waiting. Reviews that cannot be written (database down, shutdown timeout)
+ * are appended to a spool file, which is replayed at the next startup.
+ */
+@Slf4j
+@Component
+public class ReviewIngestionBuffer implements SmartLifecycle {
+
+    private static final String INSERT_SQL = "INSERT INTO reviews " +
+            "(product_id, reviewer_name, reviewer_email, rating, comment_text, review_date, is_approved) " +
+            "VALUES (?, ?, ?, ?, ?, ?, FALSE)";
+    private static final long SHUTDOWN_WAIT_MILLIS = 30_000;
+    // ids found not to exist are remembered briefly, so a burst for a bogus id costs one query
+    private static final long UNKNOWN_TTL_MILLIS = 30_000;
+    private static final int MAX_UNKNOWN_IDS = 10_000;
+    // below the web server's start/stop and graceful-shutdown phases: intake starts before the server
+    // takes requests and stops only after the requests in progress have been drained
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    public record PendingReview(Long productId, String reviewerName, String reviewerEmail,
+                                int rating, String commentText, LocalDateTime reviewDate) {}
+
+    private final ReviewIngestionProperties props;
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+
+    private final BlockingQueue<PendingReview> queue;
+    // replaced as a whole on refresh; ids created since then are checked once and remembered
+    private volatile Set<Long> productIds = Collections.emptySet();
+    private final Set<Long> recentlyCreated = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> unknownUntil = new ConcurrentHashMap<>();
+    private volatile long productIdsLoadedAt;
+
+    private volatile boolean running;
+    // submit holds the read lock from the running check until its offer is done; stop takes the write lock,
+    // so once intake is stopped no review can reach the queue after the final drain
+    private final ReadWriteLock intake = new ReentrantReadWriteLock();
+    private Thread flusher;
+
+    public ReviewIngestionBuffer(ReviewIngestionProperties props,
+                                 JdbcTemplate jdbcTemplate,
+                                 ProductRepository productRepository,
+                                 ObjectMapper objectMapper) {
+        this.props = props;
+        this.jdbcTemplate = jdbcTemplate;
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, props.getQueueCapacity()));
+    }
+
+    public boolean isEnabled() {
+        return "buffered".equalsIgnoreCase(props.getMode());
+    }
+
+    public boolean isKnownProduct(Long productId) {
+        if (productId == null) return false;
+        if (productIds.contains(productId) || recentlyCreated.contains(productId)) return true;
+        long now = System.currentTimeMillis();
+        Long until = unknownUntil.get(productId);
+        if (until != null && until > now) return false;
+        // product created after the last refresh
+        if (productRepository.existsById(productId)) {
+            unknownUntil.remove(productId);
+            recentlyCreated.add(productId);
+            return true;
+        }
+        if (unknownUntil.size() >= MAX_UNKNOWN_IDS) unknownUntil.clear();
+        unknownUntil.put(productId, now + UNKNOWN_TTL_MILLIS);
+        return false;
+    }
+
+    /**
+     * Queues the review, waiting at most offer-timeout-millis for space.
+     */
+    public void submit(PendingReview review) {
+        intake.readLock().lock();
+        try {
+            if (!running) {
+                throw new ReviewQueueFullException("Review intake is not running, please retry later");
+            }
+            if (!queue.offer(review, props.getOfferTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ReviewQueueFullException("Too many reviews are being submitted, please retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReviewQueueFullException("Review was not accepted, please retry later");
+        } finally {
+            intake.readLock().unlock();
+        }
+    }
+
+    // ---------------- Lifecycle ----------------
+
+    @Override
+    public void start() {
+        if (!isEnabled() || running) return;
+        refreshProductIds();
+        running = true;
+        replaySpool();
+        flusher = new Thread(this::flushLoop, "review-ingestion-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) return;
+        // stop accepting, after submits already past the running check have queued their review;
+        // the flusher drains what is queued and then exits
+        intake.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            intake.writeLock().unlock();
+        }
+        try {
+            flusher.join(SHUTDOWN_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingReview> left = new ArrayList<>();
+        queue.drainTo(left);
+        if (!left.isEmpty()) spool(left);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    // ---------------- Flushing ----------------
+
+    private void flushLoop() {
+        List<PendingReview> batch = new ArrayList<>(props.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingReview first = queue.poll(props.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, props.getBatchSize() - 1);
+                    write(batch);
+                    batch.clear();
+                }
+                if (System.currentTimeMillis() - productIdsLoadedAt > props.getProductIdsRefreshSeconds() * 1000) {
+                    refreshProductIds();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Review flush failed", e);
+                if (!batch.isEmpty()) spool(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingReview> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, r) -> {
+                ps.setLong(1, r.productId());
+                ps.setString(2, r.reviewerName());
+                ps.setString(3, r.reviewerEmail());
+                ps.setInt(4, r.rating());
+                ps.setString(5, r.commentText());
+                ps.setTimestamp(6, Timestamp.valueOf(r.reviewDate()));
+            });
+        } catch (DataAccessException e) {
+            // one bad row (e.g. product deleted meanwhile) fails the whole batch: retry row by row
+            writeOneByOne(batch);
+        }
+    }
+
+    private void writeOneByOne(List<PendingReview> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            PendingReview r = batch.get(i);
+            try {
+                jdbcTemplate.update(INSERT_SQL, r.productId(), r.reviewerName(), r.reviewerEmail(),
+                        r.rating(), r.commentText(), Timestamp.valueOf(r.reviewDate()));
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Dropping review for product {}: {}", r.productId(), e.getMostSpecificCause().getMessage());
+            } catch (DataAccessException e) {
+                log.error("Database unavailable, spooling {} reviews", batch.size() - i, e);
+                spool(batch.subList(i, batch.size()));
+                return;
+            }
+        }
+    }
+
+    private void refreshProductIds() {
+        try {
+            productIds = new HashSet<>(productRepository.findAllProductIds());
+            recentlyCreated.clear();
+            unknownUntil.clear();
+            productIdsLoadedAt = System.currentTimeMillis();
+        } catch (DataAccessException e) {
+            log.warn("Could not refresh product ids, keeping the previous set", e);
+            productIdsLoadedAt = System.currentTimeMillis();
+        }
+    }
+
+    // ---------------- Spool file ----------------
+
+    private synchronized void spool(List<PendingReview> reviews) {
+        Path file = Paths.get(props.getSpoolFile());
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (PendingReview r : reviews) {
+                    w.write(objectMapper.writeValueAsString(r));
+                    w.newLine();
+                }
+            }
+        } catch (IOException e) {
+            log.error("Could not spool {} reviews to {}", reviews.size(), file, e);
+        }
+    }
+
+    private void replaySpool() {
+        Path file = Paths.get(props.getSpoolFile());
+        if (!Files.exists(file)) return;
+        // move it aside first so reviews that fail again are spooled to a fresh file
+        Path replaying = file.resolveSibling(file.getFileName() + ".replaying");
+        try {
+            Files.move(file, replaying, StandardCopyOption.REPLACE_EXISTING);
+            List<PendingReview> batch = new ArrayList<>(props.getBatchSize());
+            for (String line : Files.readAllLines(replaying, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) continue;
+                batch.add(objectMapper.readValue(line, PendingReview.class));
+                if (batch.size() >= props.getBatchSize()) {
+                    write(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) write(batch);
+            Files.delete(replaying);
+        } catch (IOException e) {
+            log.error("Could not replay review spool {}", replaying, e);
+        }
+    }
+}
@@ -1,15 +1,33 @@
 package com.example.jewellery_backend.service;
 
+import com.example.jewellery_backend.dto.AdminReviewRowDto;
+import com.example.jewellery_backend.dto.BulkReviewActionRequest;
+import com.example.jewellery_backend.dto.BulkReviewActionResultDto;
+import com.example.jewellery_backend.dto.RatingSummaryDto;
+import com.example.jewellery_backend.dto.ReviewPageDto;
 import com.example.jewellery_backend.dto.ReviewRequestDto;
 import com.example.jewellery_backend.dto.ReviewResponseDto;
 
+import org.springframework.data.domain.Page;
+
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface ReviewService {
     ReviewResponseDto addReview(Long productId, ReviewRequestDto request);
-    List<ReviewResponseDto> getPublicReviewsForProduct(Long productId); // only approved
+    ReviewPageDto getPublicReviewsForProduct(Long productId, String sort, String cursor, int limit); // only approved
     List<ReviewResponseDto> getAllReviewsForProduct(Long productId); // admin: all
     List<ReviewResponseDto> getAllReviews(); // admin
+    // admin moderation queue, newest first; null filters are ignored, dates are inclusive days
+    Page<AdminReviewRowDto> getModerationQueue(Boolean isApproved, Long productId, Integer minRating, Integer maxRating,
+                                               LocalDate from, LocalDate to, int page, int size);
     void deleteReview(Long reviewId);
     void approveReview(Long reviewId);
+    // admin bulk moderation: one locking read and one set-based write per call
+    BulkReviewActionResultDto bulkApprove(BulkReviewActionRequest request);
+    BulkReviewActionResultDto bulkReject(BulkReviewActionRequest request); // approved -> pending
+    BulkReviewActionResultDto bulkDelete(BulkReviewActionRequest request);
+    List<RatingSummaryDto> getRatingSummaries(Collection<Long> productIds); // one entry per requested id
+    void rebuildRatingSummaries(); // admin: recompute from the reviews table
 }
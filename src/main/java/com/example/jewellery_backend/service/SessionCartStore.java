@@ -0,0 +1,44 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.Cart;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Default store: keeps the cart in the current HttpSession, the token is not used.
+ */
+@Component
+@ConditionalOnProperty(name = "cart.storage", havingValue = "session", matchIfMissing = true)
+public class SessionCartStore implements CartStore {
+
+    @Override
+    public Cart load(String cartToken) {
+        RequestAttributes attrs = RequestContextHolder.currentRequestAttributes();
+        Cart cart = (Cart) attrs.getAttribute(Cart.SESSION_ATTRIBUTE, RequestAttributes.SCOPE_SESSION);
+        if (cart != null) return cart;
+
+        // first request of the session: make sure parallel requests end up sharing one cart
+        synchronized (attrs.getSessionMutex()) {
+            cart = (Cart) attrs.getAttribute(Cart.SESSION_ATTRIBUTE, RequestAttributes.SCOPE_SESSION);
+            if (cart == null) {
+                cart = new Cart();
+                attrs.setAttribute(Cart.SESSION_ATTRIBUTE, cart, RequestAttributes.SCOPE_SESSION);
+            }
+            return cart;
+        }
+    }
+
+    @Override
+    public void save(String cartToken, Cart cart) {
+        RequestContextHolder.currentRequestAttributes()
+                .setAttribute(Cart.SESSION_ATTRIBUTE, cart, RequestAttributes.SCOPE_SESSION);
+    }
+
+    @Override
+    public void remove(String cartToken) {
+        RequestContextHolder.currentRequestAttributes()
+                .removeAttribute(Cart.SESSION_ATTRIBUTE, RequestAttributes.SCOPE_SESSION);
+    }
+}
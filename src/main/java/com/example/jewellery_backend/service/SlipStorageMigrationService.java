@@ -0,0 +1,84 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.dto.StorageMigrationResultDto;
+import com.example.jewellery_backend.entity.Slip;
+import com.example.jewellery_backend.exception.FileStorageException;
+import com.example.jewellery_backend.repository.SlipRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Moves slips uploaded before content-addressed storage ("orders/{id}/..." and "slips/order_{id}/...",
+ * one directory per order) into "blobs/slips/ab/cd/{sha256}", setting the checksum on the way.
+ * Each slip is copied, repointed with a conditional update and only then removed from the old place,
+ * so the run can be stopped at any point and started again: migrated slips no longer match the query.
+ */
+@Slf4j
+@Service
+public class SlipStorageMigrationService {
+
+    private static final int PAGE_SIZE = 100;
+    public static final int MAX_SLIPS_PER_RUN = 5000;
+
+    private final SlipRepository slipRepository;
+    private final FileStorageService fileStorageService;
+
+    public SlipStorageMigrationService(SlipRepository slipRepository, FileStorageService fileStorageService) {
+        this.slipRepository = slipRepository;
+        this.fileStorageService = fileStorageService;
+    }
+
+    /**
+     * Migrates at most limit slips with id greater than afterId.
+     */
+    public StorageMigrationResultDto migrate(Long afterId, int limit) {
+        int max = Math.min(Math.max(limit, 1), MAX_SLIPS_PER_RUN);
+        StorageMigrationResultDto result = new StorageMigrationResultDto();
+        long cursor = afterId != null ? afterId : 0L;
+
+        while (result.getScanned() < max) {
+            int pageSize = Math.min(PAGE_SIZE, max - result.getScanned());
+            List<Slip> page = slipRepository.findLegacyStoredAfter(cursor, PageRequest.of(0, pageSize));
+            for (Slip slip : page) {
+                migrateOne(slip, result);
+                result.setScanned(result.getScanned() + 1);
+                cursor = slip.getSlipId();
+            }
+            if (page.size() < pageSize) {
+                result.setDone(true);
+                break;
+            }
+        }
+        result.setNextAfterId(cursor);
+        log.info("Slip storage migration: scanned {}, migrated {}, missing {}, failed {}, next after id {}",
+                result.getScanned(), result.getMigrated(), result.getMissing(), result.getFailed(), cursor);
+        return result;
+    }
+
+    private void migrateOne(Slip slip, StorageMigrationResultDto result) {
+        String oldPath = slip.getFilePath();
+        if (oldPath == null || oldPath.contains("..") || !fileStorageService.exists(oldPath)) {
+            log.warn("Slip {}: file {} not found, skipped", slip.getSlipId(), oldPath);
+            result.setMissing(result.getMissing() + 1);
+            return;
+        }
+        try {
+            FileStorageService.StoredFile stored = fileStorageService.copyToContentAddressed(oldPath, OrderService.SLIP_NAMESPACE);
+            if (slipRepository.relocate(slip.getSlipId(), oldPath, stored.relativePath(), stored.sha256()) == 0) {
+                // replaced or deleted meanwhile; an unused copy is left for the orphan cleanup
+                result.setFailed(result.getFailed() + 1);
+                return;
+            }
+            if (!slipRepository.existsByFilePath(oldPath)) {
+                fileStorageService.deleteAndPruneEmptyDirs(oldPath);
+            }
+            result.setMigrated(result.getMigrated() + 1);
+        } catch (FileStorageException e) {
+            log.warn("Slip {}: could not migrate {}", slip.getSlipId(), oldPath, e);
+            result.setFailed(result.getFailed() + 1);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.config.UploadCleanupProperties;
+import com.example.jewellery_backend.repository.ProductImageRepository;
+import com.example.jewellery_backend.repository.SlipRepository;
+import com.example.jewellery_backend.util.ProductImageUrls;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Removes uploaded files that nothing points to any more: slips of rolled-back checkouts,
+ * replaced slips whose delete failed, images of deleted rows, temp files of aborted uploads.
+ * <p>
+ * The upload dir is walked in sorted path order, a bounded number of files per run; the last path
+ * checked is saved to a checkpoint file after every batch, so the next run (or a restart) continues from there.
+ * Each batch of paths is checked with one query on slips and one on product_images. Files younger than
+ * the grace period are never deleted, and the age is checked again just before the delete.
+ */
+@Slf4j
+@Service
+public class UploadCleanupService {
+
+    private static final String TMP_DIR = "tmp";
+
+    private final UploadCleanupProperties props;
+    private final FileStorageService fileStorageService;
+    private final SlipRepository slipRepository;
+    private final ProductImageRepository productImageRepository;
+    private final Counter reclaimedBytes;
+    private final Counter deletedFiles;
+
+    public UploadCleanupService(UploadCleanupProperties props,
+                                FileStorageService fileStorageService,
+                                SlipRepository slipRepository,
+                                ProductImageRepository productImageRepository,
+                                MeterRegistry meterRegistry) {
+        this.props = props;
+        this.fileStorageService = fileStorageService;
+        this.slipRepository = slipRepository;
+        this.productImageRepository = productImageRepository;
+        this.reclaimedBytes = Counter.builder("uploads.cleanup.reclaimed")
+                .description("Bytes freed by deleting unreferenced uploads")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.deletedFiles = Counter.builder("uploads.cleanup.deleted")
+                .description("Unreferenced uploads deleted")
+                .baseUnit("files")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${file.cleanup.initial-delay-millis:600000}",
+            fixedDelayString = "${file.cleanup.interval-millis:3600000}")
+    public void scheduledRun() {
+        if (!props.isEnabled()) return;
+        try {
+            run();
+        } catch (RuntimeException e) {
+            log.error("Upload cleanup failed", e);
+        }
+    }
+
+    /**
+     * One bounded pass from the checkpoint.
+     */
+    public synchronized void run() {
+        Sweep sweep = new Sweep(readCheckpoint());
+        boolean finished = walk(fileStorageService.getRootLocation(), new ArrayList<>(), sweep);
+        if (finished) {
+            sweep.flush();
+            // whole tree done: start from the beginning next time
+            writeCheckpoint("");
+        }
+        log.info("Upload cleanup: checked {} files, deleted {} ({} bytes){}",
+                sweep.checked, sweep.deleted, sweep.bytes, finished ? ", walk complete" : "");
+    }
+
+    // ---------------- Walk ----------------
+
+    // depth-first in sorted name order; returns false when the per-run limit stopped it
+    private boolean walk(Path dir, List<String> segments, Sweep sweep) {
+        List<String> names;
+        try (Stream<Path> entries = Files.list(dir)) {
+            names = entries.map(p -> p.getFileName().toString()).sorted().toList();
+        } catch (NoSuchFileException e) {
+            return true; // removed meanwhile
+        } catch (IOException e) {
+            log.warn("Upload cleanup: cannot list {}", dir, e);
+            return true;
+        }
+
+        for (String name : names) {
+            if (segments.isEmpty() && name.startsWith(".")) continue; // checkpoint and other bookkeeping files
+            List<String> child = new ArrayList<>(segments);
+            child.add(name);
+            Path path = dir.resolve(name);
+            if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                // skip subtrees that lie entirely before the checkpoint
+                if (compare(child, sweep.after) < 0 && !isPrefix(child, sweep.after)) continue;
+                if (!walk(path, child, sweep)) return false;
+            } else if (compare(child, sweep.after) > 0) {
+                if (sweep.checked >= props.getMaxFilesPerRun() || Thread.currentThread().isInterrupted()) {
+                    sweep.flush();
+                    return false;
+                }
+                sweep.add(String.join("/", child), path);
+            }
+        }
+        return true;
+    }
+
+    private static int compare(List<String> a, List<String> b) {
+        for (int i = 0; i < Math.min(a.size(), b.size()); i++) {
+            int c = a.get(i).compareTo(b.get(i));
+            if (c != 0) return c;
+        }
+        return Integer.compare(a.size(), b.size());
+    }
+
+    private static boolean isPrefix(List<String> prefix, List<String> path) {
+        return prefix.size() < path.size() && path.subList(0, prefix.size()).equals(prefix);
+    }
+
+    /**
+     * Files of the current pass, collected into batches for the reference lookup.
+     */
+    private final class Sweep {
+        private final List<String> after;
+        private final Map<String, Path> batch = new LinkedHashMap<>();
+        private int checked;
+        private int deleted;
+        private long bytes;
+
+        Sweep(String checkpoint) {
+            this.after = checkpoint.isEmpty() ? List.of() : List.of(checkpoint.split("/"));
+        }
+
+        void add(String relativePath, Path file) {
+            batch.put(relativePath, file);
+            checked++;
+            if (batch.size() >= props.getBatchSize()) flush();
+        }
+
+        void flush() {
+            if (batch.isEmpty()) return;
+            for (String relativePath : unreferenced(batch.keySet())) {
+                long size = deleteIfOld(batch.get(relativePath));
+                if (size >= 0) {
+                    deleted++;
+                    bytes += size;
+                }
+            }
+            String last = null;
+            for (String relativePath : batch.keySet()) last = relativePath;
+            batch.clear();
+            writeCheckpoint(last);
+            pause();
+        }
+    }
+
+    // ---------------- Reference check ----------------
+
+    private Set<String> unreferenced(Collection<String> paths) {
+        Set<String> candidates = new LinkedHashSet<>(paths);
+        Set<String> tmp = new LinkedHashSet<>();
+        for (Iterator<String> it = candidates.iterator(); it.hasNext(); ) {
+            String p = it.next();
+            // temp files of uploads are never referenced, only their age counts
+            if (p.startsWith(TMP_DIR + "/")) {
+                tmp.add(p);
+                it.remove();
+            }
+        }
+        if (!candidates.isEmpty()) {
+            candidates.removeAll(slipRepository.findFilePathsIn(candidates));
+        }
+        if (!candidates.isEmpty()) {
+            Map<String, String> byUrl = new HashMap<>();
+            for (String p : candidates) {
+                if (p.startsWith(ProductImageUrls.BLOB_PREFIX)) byUrl.put(ProductImageUrls.publicUrl(p), p);
+            }
+            Collection<String> urls = byUrl.isEmpty() ? List.of("") : byUrl.keySet();
+            for (Object[] row : productImageRepository.findReferencing(candidates, urls)) {
+                for (Object value : row) {
+                    if (value == null) continue;
+                    candidates.remove(value.toString());
+                    String path = byUrl.get(value.toString());
+                    if (path != null) candidates.remove(path);
+                }
+            }
+        }
+        candidates.addAll(tmp);
+        return candidates;
+    }
+
+    // returns the size freed, or -1 if the file was kept (too young, gone, not deletable)
+    private long deleteIfOld(Path file) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            Duration age = Duration.ofMillis(System.currentTimeMillis() - attrs.lastModifiedTime().toMillis());
+            if (age.toHours() < props.getGraceHours()) return -1;
+            Files.delete(file);
+            reclaimedBytes.increment(attrs.size());
+            deletedFiles.increment();
+            return attrs.size();
+        } catch (NoSuchFileException e) {
+            return -1;
+        } catch (IOException e) {
+            log.warn("Upload cleanup: could not delete {}", file, e);
+            return -1;
+        }
+    }
+
+    // ---------------- Checkpoint and throttling ----------------
+
+    private Path checkpointPath() {
+        return fileStorageService.getRootLocation().resolve(props.getCheckpointFile());
+    }
+
+    private String readCheckpoint() {
+        try {
+            Path file = checkpointPath();
+            return Files.exists(file) ? Files.readString(file, StandardCharsets.UTF_8).trim() : "";
+        } catch (IOException e) {
+            log.warn("Upload cleanup: cannot read checkpoint, starting from the beginning", e);
+            return "";
+        }
+    }
+
+    private void writeCheckpoint(String relativePath) {
+        Path file = checkpointPath();
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.writeString(tmp, relativePath, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Upload cleanup: cannot write checkpoint", e);
+        }
+    }
+
+    private void pause() {
+        if (props.getPauseMillis() <= 0) return;
+        try {
+            Thread.sleep(props.getPauseMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
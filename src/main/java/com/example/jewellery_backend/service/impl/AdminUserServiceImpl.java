@@ -1,16 +1,23 @@
 package com.example.jewellery_backend.service.impl;
 
+import com.example.jewellery_backend.config.JwtTokenProvider;
+import com.example.jewellery_backend.config.TokenRevocationList;
 import com.example.jewellery_backend.dto.*;
 import com.example.jewellery_backend.entity.AdminUser;
 import com.example.jewellery_backend.exception.ResourceNotFoundException;
 import com.example.jewellery_backend.repository.AdminUserRepository;
 import com.example.jewellery_backend.service.AdminUserService;
+import com.example.jewellery_backend.service.LastLoginRecorder;
+import com.example.jewellery_backend.service.LoginAttemptTracker;
+import com.example.jewellery_backend.service.PasswordVerifier;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -18,6 +25,11 @@ public class AdminUserServiceImpl implements AdminUserService {
 
     private final AdminUserRepository repository;
     private final PasswordEncoder passwordEncoder;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationList tokenRevocationList;
+    private final PasswordVerifier passwordVerifier;
+    private final LoginAttemptTracker loginAttemptTracker;
+    private final LastLoginRecorder lastLoginRecorder;
 
     @Override
     public AdminUserResponse register(AdminUserRegisterRequest request) {
@@ -44,23 +56,54 @@ public class AdminUserServiceImpl implements AdminUserService {
     }
 
     @Override
-    public AdminUserLoginResponse login(AdminUserLoginRequest request) {
-        AdminUser user = repository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    public CompletableFuture<AdminUserLoginResponse> login(AdminUserLoginRequest request, String clientIp) {
+        String username = request.getUsername();
+        // locked out: refused before any database or BCrypt work
+        loginAttemptTracker.checkAllowed(username, clientIp);
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
-            throw new IllegalArgumentException("Invalid credentials");
+        AdminUser user = repository.findByUsername(username).orElse(null);
+        if (user == null) {
+            loginAttemptTracker.recordFailure(username, clientIp);
+            throw new ResourceNotFoundException("User not found");
         }
 
-        user.setLastLogin(LocalDateTime.now());
-        repository.save(user);
+        return passwordVerifier.matches(request.getPassword(), user.getPasswordHash())
+                .thenApply(matches -> {
+                    if (!matches) {
+                        loginAttemptTracker.recordFailure(username, clientIp);
+                        throw new IllegalArgumentException("Invalid credentials");
+                    }
+                    if (Boolean.FALSE.equals(user.getIsActive())) {
+                        throw new IllegalArgumentException("Account is deactivated");
+                    }
+                    loginAttemptTracker.recordSuccess(username);
+                    lastLoginRecorder.record(user.getAdminId(), LocalDateTime.now());
 
-        return AdminUserLoginResponse.builder()
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .role(user.getRole().name())
-                .token("dummy-token") // replace with JWT if required
-                .build();
+                    JwtTokenProvider.IssuedToken token = jwtTokenProvider.issue(user);
+                    return AdminUserLoginResponse.builder()
+                            .username(user.getUsername())
+                            .email(user.getEmail())
+                            .role(user.getRole().name())
+                            .token(token.token())
+                            .expiresAt(token.expiresAt())
+                            .build();
+                });
+    }
+
+    @Override
+    public void logout(String tokenId, Date expiresAt) {
+        tokenRevocationList.revokeToken(tokenId, expiresAt);
+    }
+
+    @Override
+    public AdminUserResponse deactivate(Long id) {
+        AdminUser user = repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        user.setIsActive(false);
+        AdminUser saved = repository.save(user);
+        // tokens already handed out stop working right away (on this node; elsewhere when they expire)
+        tokenRevocationList.revokeAllFor(saved.getUsername());
+        return mapToResponse(saved);
     }
 
     @Override
@@ -1,28 +1,54 @@
 package com.example.jewellery_backend.service.impl;
 
+import com.example.jewellery_backend.dto.CategoryClosureCheckDto;
 import com.example.jewellery_backend.dto.CategoryDto;
 import com.example.jewellery_backend.entity.Category;
 import com.example.jewellery_backend.exception.ResourceNotFoundException;
+import com.example.jewellery_backend.repository.CategoryClosureRepository;
 import com.example.jewellery_backend.repository.CategoryRepository;
+import com.example.jewellery_backend.service.CategoryProductCounts;
 import com.example.jewellery_backend.service.CategoryService;
+import com.example.jewellery_backend.service.CategoryTreeCache;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Categories and their hierarchy. parent_category_id is the source of truth; categories_closure
+ * (every ancestor/descendant pair with its depth) is kept in step in the same transaction, each change
+ * being a fixed number of set-based statements however large the subtree.
+ */
 @Service
 @Transactional
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryClosureRepository categoryClosureRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final CategoryProductCounts categoryProductCounts;
 
-    public CategoryServiceImpl(CategoryRepository categoryRepository) {
+    public CategoryServiceImpl(CategoryRepository categoryRepository,
+                               CategoryClosureRepository categoryClosureRepository,
+                               CategoryTreeCache categoryTreeCache,
+                               CategoryProductCounts categoryProductCounts) {
         this.categoryRepository = categoryRepository;
+        this.categoryClosureRepository = categoryClosureRepository;
+        this.categoryTreeCache = categoryTreeCache;
+        this.categoryProductCounts = categoryProductCounts;
     }
 
     private CategoryDto toDto(Category c) {
-        return new CategoryDto(c.getCategoryId(), c.getCategoryName(), c.getSlug());
+        CategoryDto dto = new CategoryDto(c.getCategoryId(), c.getCategoryName(), c.getSlug());
+        dto.setIsActive(c.getIsActive());
+        dto.setParentCategoryId(c.getParent() != null ? c.getParent().getCategoryId() : null);
+        // in-memory counts, no counting query
+        CategoryProductCounts.Counts counts = categoryProductCounts.current();
+        dto.setProductCount(counts.subtree(c.getCategoryId()));
+        dto.setDirectProductCount(counts.direct(c.getCategoryId()));
+        return dto;
     }
 
     private Category fromDto(CategoryDto dto) {
@@ -34,7 +60,14 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public CategoryDto createCategory(CategoryDto dto) {
-        Category saved = categoryRepository.save(fromDto(dto));
+        Category category = fromDto(dto);
+        Long parentId = dto.getParentCategoryId();
+        if (parentId != null) {
+            category.setParent(lock(List.of(parentId)).get(parentId));
+        }
+        Category saved = categoryRepository.save(category);
+        categoryClosureRepository.insertNode(saved.getCategoryId(), parentId);
+        categoryTreeCache.rebuildAfterCommit();
         return toDto(saved);
     }
 
@@ -44,14 +77,63 @@ public class CategoryServiceImpl implements CategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("Category","id",id));
         existing.setCategoryName(dto.getCategoryName());
         existing.setSlug(dto.getSlug());
-        return toDto(categoryRepository.save(existing));
+        Category saved = categoryRepository.save(existing);
+        // a parent given here moves the category; moving to the top level goes through moveCategory
+        Long currentParentId = saved.getParent() != null ? saved.getParent().getCategoryId() : null;
+        if (dto.getParentCategoryId() != null && !dto.getParentCategoryId().equals(currentParentId)) {
+            return moveCategory(id, dto.getParentCategoryId());
+        }
+        categoryTreeCache.rebuildAfterCommit();
+        return toDto(saved);
+    }
+
+    /**
+     * Moves the category with its whole subtree under newParentId (null = top level):
+     * one DELETE cutting the paths into the subtree from its old ancestors and one INSERT ... SELECT
+     * joining every ancestor of the new parent with every node of the subtree.
+     */
+    @Override
+    public CategoryDto moveCategory(Long id, Long newParentId) {
+        Set<Long> ids = new HashSet<>();
+        ids.add(id);
+        if (newParentId != null) ids.add(newParentId);
+        Map<Long, Category> locked = lock(ids);
+        Category category = locked.get(id);
+
+        if (newParentId != null && categoryClosureRepository.countInSubtree(id, newParentId) > 0) {
+            throw new IllegalArgumentException("A category cannot be moved under itself or one of its subcategories");
+        }
+        if (categoryClosureRepository.countInSubtree(id, id) == 0) {
+            throw new IllegalStateException("categories_closure has no entry for category " + id
+                    + "; rebuild it with the closure repair first");
+        }
+
+        categoryClosureRepository.detachSubtree(id);
+        categoryClosureRepository.attachSubtree(id, newParentId);
+        category.setParent(newParentId != null ? locked.get(newParentId) : null);
+        Category saved = categoryRepository.save(category);
+        categoryTreeCache.rebuildAfterCommit();
+        return toDto(saved);
     }
 
+    /**
+     * Deletes the category; its subcategories move up to its parent (paths through it get one shorter).
+     */
     @Override
     public void deleteCategory(Long id) {
         Category existing = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category","id",id));
-        categoryRepository.delete(existing);
+        Long parentId = existing.getParent() != null ? existing.getParent().getCategoryId() : null;
+        Set<Long> ids = new HashSet<>();
+        ids.add(id);
+        if (parentId != null) ids.add(parentId);
+        lock(ids);
+
+        categoryClosureRepository.shortenPathsThrough(id);
+        categoryClosureRepository.deleteNode(id);
+        categoryRepository.reparentChildren(id, parentId);
+        categoryRepository.deleteRow(id);
+        categoryTreeCache.rebuildAfterCommit();
     }
 
     @Override
@@ -65,4 +147,43 @@ public class CategoryServiceImpl implements CategoryService {
     public List<CategoryDto> getAllCategories() {
         return categoryRepository.findAll().stream().map(this::toDto).collect(Collectors.toList());
     }
+
+    /**
+     * Compares categories_closure with the closure implied by the parent links;
+     * with repair, an inconsistent table is rebuilt from the parent links in one statement.
+     */
+    @Override
+    public CategoryClosureCheckDto checkClosure(boolean repair) {
+        long cycles = categoryClosureRepository.countParentCycles();
+        long missing = categoryClosureRepository.countMissingPaths();
+        long unexpected = categoryClosureRepository.countUnexpectedPaths();
+        boolean consistent = cycles == 0 && missing == 0 && unexpected == 0;
+
+        boolean repaired = false;
+        if (repair && !consistent) {
+            if (cycles > 0) {
+                throw new IllegalArgumentException("Parent links contain cycles; fix parent_category_id before repairing");
+            }
+            categoryClosureRepository.deleteAllRows();
+            categoryClosureRepository.insertFromParentLinks();
+            categoryTreeCache.rebuildAfterCommit();
+            repaired = true;
+        }
+        return CategoryClosureCheckDto.builder()
+                .missingPaths(missing)
+                .unexpectedPaths(unexpected)
+                .parentCycles(cycles)
+                .consistent(consistent)
+                .repaired(repaired)
+                .build();
+    }
+
+    private Map<Long, Category> lock(Collection<Long> ids) {
+        Map<Long, Category> locked = categoryRepository.findAllForUpdateByCategoryIdIn(ids).stream()
+                .collect(Collectors.toMap(Category::getCategoryId, Function.identity()));
+        for (Long id : ids) {
+            if (!locked.containsKey(id)) throw new ResourceNotFoundException("Category","id",id);
+        }
+        return locked;
+    }
 }
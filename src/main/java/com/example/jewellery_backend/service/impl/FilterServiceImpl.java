@@ -1,41 +1,155 @@
 package com.example.jewellery_backend.service.impl;
 
 import com.example.jewellery_backend.dto.Filter.FilterRequest;
+import com.example.jewellery_backend.dto.ProductCardDto;
+import com.example.jewellery_backend.dto.ProductCardPageDto;
+import com.example.jewellery_backend.dto.ProductSummary;
 import com.example.jewellery_backend.entity.Product;
-import com.example.jewellery_backend.repository.FilterRepository;
 import com.example.jewellery_backend.repository.ProductRepository;
 import com.example.jewellery_backend.service.FilterService;
+import com.example.jewellery_backend.service.ProductSummaryCache;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.*;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Transactional(readOnly = true)
 public class FilterServiceImpl implements FilterService {
 
-    private final FilterRepository filterRepository;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final long COUNT_TTL_MILLIS = 60_000;
+    private static final int MAX_CACHED_COUNTS = 1_000;
+
+    private final EntityManager entityManager;
+    private final ProductSummaryCache productSummaryCache;
+
+    // totals for countMode APPROXIMATE, per normalized filter
+    private final Map<CountKey, CachedCount> counts = new ConcurrentHashMap<>();
 
     @Autowired
-    public FilterServiceImpl(ProductRepository productRepository, FilterRepository filterRepository) {
-        this.filterRepository = filterRepository;
+    public FilterServiceImpl(ProductRepository productRepository,
+                             EntityManager entityManager, ProductSummaryCache productSummaryCache) {
+        this.entityManager = entityManager;
+        this.productSummaryCache = productSummaryCache;
     }
 
     @Override
-    public Page<Product> filterProducts(FilterRequest request) {
+    public List<Long> findMatchingIds(FilterRequest request) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        Predicate where = buildSpecification(request).toPredicate(root, query, cb);
+        // ids only: the joins of the specification would otherwise repeat a product per matching link
+        query.select(root.get("productId")).distinct(true).orderBy(cb.asc(root.get("productId")));
+        if (where != null) query.where(where);
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public ProductCardPageDto filterProductCards(FilterRequest request) {
         int page = (request.getPage() == null || request.getPage() < 0) ? 0 : request.getPage();
-        int size = (request.getSize() == null || request.getSize() <= 0) ? 20 : request.getSize();
-        Pageable pageable = PageRequest.of(page, size, Sort.by("productId").descending());
+        int size = (request.getSize() == null || request.getSize() <= 0) ? DEFAULT_PAGE_SIZE : Math.min(request.getSize(), MAX_PAGE_SIZE);
+        // page * size must fit the int offset of setFirstResult
+        long offset = (long) page * size;
+        if (offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("page must be at most " + Integer.MAX_VALUE / size + " for size " + size);
+        }
+
+        // one row more than the page tells whether there is a next page without counting
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        Predicate where = buildSpecification(request).toPredicate(root, query, cb);
+        query.select(root.get("productId")).distinct(true).orderBy(cb.desc(root.get("productId")));
+        if (where != null) query.where(where);
+        List<Long> ids = entityManager.createQuery(query)
+                .setFirstResult((int) offset)
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = ids.size() > size;
+        if (hasNext) ids = ids.subList(0, size);
+
+        Map<Long, ProductSummary> summaries = productSummaryCache.getAll(ids);
+        List<ProductCardDto> items = new ArrayList<>();
+        for (Long id : ids) {
+            ProductSummary s = summaries.get(id);
+            if (s != null) items.add(ProductCardDto.fromSummary(s)); // deleted since the id query
+        }
+
+        Long total = null;
+        boolean approximate = false;
+        FilterRequest.CountMode mode = request.getCountMode() != null ? request.getCountMode() : FilterRequest.CountMode.EXACT;
+        if (!hasNext && (!ids.isEmpty() || page == 0)) {
+            // last page: the total follows from its position
+            total = offset + ids.size();
+        } else if (mode == FilterRequest.CountMode.EXACT) {
+            total = count(request);
+        } else if (mode == FilterRequest.CountMode.APPROXIMATE) {
+            total = cachedCount(request);
+            approximate = true;
+        }
+
+        return ProductCardPageDto.builder()
+                .items(items)
+                .page(page)
+                .size(size)
+                .hasNext(hasNext)
+                .totalElements(total)
+                .totalApproximate(approximate)
+                .build();
+    }
+
+    private long count(FilterRequest request) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        Predicate where = buildSpecification(request).toPredicate(root, query, cb);
+        query.select(cb.countDistinct(root));
+        if (where != null) query.where(where);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private long cachedCount(FilterRequest request) {
+        CountKey key = CountKey.of(request);
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(key);
+        if (cached != null && now - cached.countedAt < COUNT_TTL_MILLIS) return cached.count;
 
-        Specification<Product> spec = buildSpecification(request);
-        return filterRepository.findAll(spec, pageable);
+        long count = count(request);
+        if (counts.size() >= MAX_CACHED_COUNTS) counts.clear();
+        counts.put(key, new CachedCount(count, now));
+        return count;
     }
 
+    // the filter without paging, with lists sorted so equal filters give equal keys
+    private record CountKey(Double minPrice, Double maxPrice, List<Long> categoryIds,
+                            Map<String, List<String>> attributes) {
+
+        static CountKey of(FilterRequest r) {
+            List<Long> categories = r.getCategoryIds() == null ? List.of()
+                    : r.getCategoryIds().stream().filter(Objects::nonNull).distinct().sorted().toList();
+            Map<String, List<String>> attributes = new TreeMap<>();
+            if (r.getAttributes() != null) {
+                r.getAttributes().forEach((name, values) -> {
+                    if (values != null && !values.isEmpty()) {
+                        attributes.put(name, values.stream().filter(Objects::nonNull).sorted().toList());
+                    }
+                });
+            }
+            return new CountKey(r.getMinPrice(), r.getMaxPrice(), categories, attributes);
+        }
+    }
+
+    private record CachedCount(long count, long countedAt) {}
+
     private Specification<Product> buildSpecification(FilterRequest request) {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
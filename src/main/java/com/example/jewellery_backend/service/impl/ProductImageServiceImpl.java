@@ -0,0 +1,122 @@
+package com.example.jewellery_backend.service.impl;
+
+import com.example.jewellery_backend.dto.ProductImageDto;
+import com.example.jewellery_backend.entity.Product;
+import com.example.jewellery_backend.entity.ProductImage;
+import com.example.jewellery_backend.exception.ResourceNotFoundException;
+import com.example.jewellery_backend.repository.ProductImageRepository;
+import com.example.jewellery_backend.repository.ProductRepository;
+import com.example.jewellery_backend.service.FileStorageService;
+import com.example.jewellery_backend.service.ImageRenditionService;
+import com.example.jewellery_backend.service.ProductImageService;
+import com.example.jewellery_backend.service.ProductSummaryCache;
+import com.example.jewellery_backend.util.ProductImageUrls;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Stores uploaded product images and hands them to ImageRenditionService; the request
+ * only copies the original to disk, the resized versions are produced in the background.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ProductImageServiceImpl implements ProductImageService {
+
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", ".jpg",
+            "image/png", ".png",
+            "image/gif", ".gif",
+            "image/webp", ".webp");
+
+    private final ProductRepository productRepository;
+    private final ProductImageRepository productImageRepository;
+    private final FileStorageService fileStorageService;
+    private final ImageRenditionService imageRenditionService;
+    private final ProductSummaryCache productSummaryCache;
+
+    @Override
+    public ProductImageDto uploadImage(Long productId, MultipartFile file, String altText,
+                                       boolean isPrimary, Integer sortOrder) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productId));
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Image file is required");
+        }
+        String extension = file.getContentType() != null ? EXTENSIONS.get(file.getContentType().toLowerCase()) : null;
+        if (extension == null) {
+            throw new IllegalArgumentException("Unsupported image type: " + file.getContentType());
+        }
+
+        FileStorageService.StoredFile stored;
+        try (InputStream in = file.getInputStream()) {
+            stored = fileStorageService.storeContentAddressed(in, ProductImageUrls.NAMESPACE, extension);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read uploaded image", e);
+        }
+
+        List<ProductImage> existing = productImageRepository.findByProduct_ProductIdOrderBySortOrderAsc(productId);
+        if (isPrimary) {
+            existing.stream()
+                    .filter(img -> Boolean.TRUE.equals(img.getIsPrimary()))
+                    .forEach(img -> img.setIsPrimary(false));
+        }
+
+        ProductImage image = ProductImage.builder()
+                .product(product)
+                .imageUrl(ProductImageUrls.publicUrl(stored.relativePath()))
+                .originalPath(stored.relativePath())
+                .altText(altText)
+                .isPrimary(isPrimary || existing.isEmpty())
+                .sortOrder(sortOrder != null ? sortOrder : existing.size())
+                .renditionStatus(ProductImage.RenditionStatus.PENDING)
+                .build();
+        image = productImageRepository.save(image);
+
+        productSummaryCache.evict(productId);
+        imageRenditionService.submitAfterCommit(image.getImageId());
+        return toDto(image);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductImageDto> getImages(Long productId) {
+        return productImageRepository.findByProduct_ProductIdOrderBySortOrderAsc(productId).stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void deleteImage(Long productId, Long imageId) {
+        ProductImage image = productImageRepository.findById(imageId)
+                .filter(img -> img.getProduct().getProductId().equals(productId))
+                .orElseThrow(() -> new ResourceNotFoundException("Image not found: " + imageId));
+        // blobs are shared by identical uploads, so the files are left to the orphan cleanup
+        productImageRepository.delete(image);
+        productSummaryCache.evict(productId);
+    }
+
+    private ProductImageDto toDto(ProductImage img) {
+        return ProductImageDto.builder()
+                .imageId(img.getImageId())
+                .imageUrl(img.getImageUrl())
+                .altText(img.getAltText())
+                .isPrimary(img.getIsPrimary())
+                .sortOrder(img.getSortOrder())
+                .thumbUrl(img.getThumbUrl())
+                .mediumUrl(img.getMediumUrl())
+                .largeUrl(img.getLargeUrl())
+                .width(img.getWidth())
+                .height(img.getHeight())
+                .renditionStatus(img.getRenditionStatus() != null ? img.getRenditionStatus().name() : null)
+                .build();
+    }
+}
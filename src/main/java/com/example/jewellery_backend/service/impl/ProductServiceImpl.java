@@ -5,12 +5,16 @@ import java.util.Collections;
 import com.example.jewellery_backend.dto.CreateUpdateProductRequest;
 import com.example.jewellery_backend.dto.ProductDto;
 import com.example.jewellery_backend.dto.ProductCategoryDto;
+import com.example.jewellery_backend.dto.RatingSummaryDto;
 import com.example.jewellery_backend.entity.*;
 import com.example.jewellery_backend.exception.ResourceNotFoundException;
 import com.example.jewellery_backend.repository.ProductRepository;
 import com.example.jewellery_backend.repository.CategoryRepository;
 import com.example.jewellery_backend.repository.ProductCategoryRepository;
+import com.example.jewellery_backend.repository.ProductRatingSummaryRepository;
+import com.example.jewellery_backend.service.CategoryProductCounts;
 import com.example.jewellery_backend.service.ProductService;
+import com.example.jewellery_backend.service.ProductSummaryCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,6 +32,9 @@ public class ProductServiceImpl implements ProductService {
     private final CategoryRepository categoryRepository;
     private final ProductCategoryRepository productCategoryRepository;
     private final CategoryClosureRepository categoryClosureRepository;
+    private final ProductSummaryCache productSummaryCache;
+    private final ProductRatingSummaryRepository productRatingSummaryRepository;
+    private final CategoryProductCounts categoryProductCounts;
 
     // ---------------- Mapping methods ----------------
 
@@ -86,6 +93,12 @@ public class ProductServiceImpl implements ProductService {
                             .altText(img.getAltText())
                             .isPrimary(img.getIsPrimary())
                             .sortOrder(img.getSortOrder())
+                            .thumbUrl(img.getThumbUrl())
+                            .mediumUrl(img.getMediumUrl())
+                            .largeUrl(img.getLargeUrl())
+                            .width(img.getWidth())
+                            .height(img.getHeight())
+                            .renditionStatus(img.getRenditionStatus() != null ? img.getRenditionStatus().name() : null)
                             .build())
                     .collect(Collectors.toList());
             dto.setImages(imageDtos);
@@ -107,32 +120,67 @@ public class ProductServiceImpl implements ProductService {
         return dto; // Return the fully populated DTO
     }
 
+    // Fills in ratings for all DTOs with one query on product_rating_summary
+    private List<ProductDto> withRatings(List<ProductDto> dtos) {
+        if (dtos.isEmpty()) return dtos;
+        Map<Long, RatingSummaryDto> ratings = productRatingSummaryRepository.findAllById(
+                        dtos.stream().map(ProductDto::getProductId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(ProductRatingSummary::getProductId, RatingSummaryDto::fromEntity));
+        for (ProductDto dto : dtos) {
+            dto.setRating(ratings.getOrDefault(dto.getProductId(), RatingSummaryDto.empty(dto.getProductId())));
+        }
+        return dtos;
+    }
+
+    private ProductDto withRating(ProductDto dto) {
+        return withRatings(List.of(dto)).get(0);
+    }
+
+    // only the links that differ are deleted / inserted; nothing is written when the set is unchanged
     private void applyCategories(Product p, Set<Long> categoryIds) {
-        if (p.getProductCategories() != null) {
-            p.getProductCategories().clear();
-        } else {
+        if (p.getProductCategories() == null) {
             p.setProductCategories(new ArrayList<>());
         }
-
-        if (categoryIds != null && !categoryIds.isEmpty()) {
-            for (Long cid : categoryIds) {
-                Category c = categoryRepository.findById(cid)
-                        .orElseThrow(() -> new ResourceNotFoundException("Category", "id", cid));
-
-                ProductCategory pc = ProductCategory.builder()
-                        .id(new ProductCategoryId(
-                                p.getProductId(),
-                                c.getCategoryId()
-                        ))
-                        .product(p)
-                        .category(c)
-                        .build();
-
-                p.getProductCategories().add(pc);
-            }
+        Set<Long> requested = categoryIds == null ? Set.of() : categoryIds;
+        Set<Long> existing = p.getProductCategories().stream()
+                .map(pc -> pc.getId().getCategoryId())
+                .collect(Collectors.toSet());
+        if (existing.equals(requested)) return;
+
+        // removed links go through orphan removal
+        p.getProductCategories().removeIf(pc -> !requested.contains(pc.getId().getCategoryId()));
+
+        Set<Long> added = new HashSet<>(requested);
+        added.removeAll(existing);
+        if (added.isEmpty()) return;
+        Map<Long, Category> found = categoryRepository.findAllById(added).stream()
+                .collect(Collectors.toMap(Category::getCategoryId, c -> c));
+        for (Long cid : added) {
+            Category c = found.get(cid);
+            if (c == null) throw new ResourceNotFoundException("Category", "id", cid);
+
+            ProductCategory pc = ProductCategory.builder()
+                    .id(new ProductCategoryId(
+                            p.getProductId(),
+                            c.getCategoryId()
+                    ))
+                    .product(p)
+                    .category(c)
+                    .build();
+
+            p.getProductCategories().add(pc);
         }
     }
 
+    // category counts follow the product's links and active flag once the transaction commits
+    private void countsChanged(Product p) {
+        Set<Long> categoryIds = p.getProductCategories() == null ? Set.of() : p.getProductCategories().stream()
+                .map(pc -> pc.getCategory().getCategoryId())
+                .collect(Collectors.toSet());
+        categoryProductCounts.productChangedAfterCommit(p.getProductId(), !Boolean.FALSE.equals(p.getIsActive()), categoryIds);
+    }
+
     // ---------------- CRUD methods ----------------
 
     @Override
@@ -157,6 +205,7 @@ public class ProductServiceImpl implements ProductService {
         Product saved = productRepository.save(p); // Save first to get ID
 
         applyCategories(saved, req.getCategoryIds());
+        countsChanged(saved);
 
         return toDto(productRepository.save(saved));
     }
@@ -182,8 +231,10 @@ public class ProductServiceImpl implements ProductService {
         p.setGoldPurityKarat(req.getGoldPurityKarat());
 
         applyCategories(p, req.getCategoryIds());
+        countsChanged(p);
+        productSummaryCache.evict(id);
 
-        return toDto(productRepository.save(p));
+        return withRating(toDto(productRepository.save(p)));
     }
 
     @Override
@@ -191,20 +242,22 @@ public class ProductServiceImpl implements ProductService {
         Product p = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
         productRepository.delete(p);
+        categoryProductCounts.productChangedAfterCommit(id, false, Set.of());
+        productSummaryCache.evict(id);
     }
 
     @Override
     public ProductDto getProductById(Long id) {
         Product p = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
-        return toDto(p);
+        return withRating(toDto(p));
     }
 
     @Override
     public List<ProductDto> getAllProducts() {
-        return productRepository.findAll().stream()
+        return withRatings(productRepository.findAll().stream()
                 .map(this::toDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
@@ -236,11 +289,11 @@ public class ProductServiceImpl implements ProductService {
         }
 
         // 3. Extract distinct products and map to DTOs
-        return relevantProductCategories.stream()
+        return withRatings(relevantProductCategories.stream()
                 .map(ProductCategory::getProduct)
                 .filter(Objects::nonNull) // Ensure product is not null
                 .distinct() // Avoid duplicate products if linked to multiple relevant categories
                 .map(this::toDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 }
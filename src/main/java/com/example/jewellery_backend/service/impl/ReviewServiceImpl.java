@@ -1,18 +1,37 @@
 package com.example.jewellery_backend.service.impl;
 
 
+import com.example.jewellery_backend.dto.AdminReviewRowDto;
+import com.example.jewellery_backend.dto.BulkReviewActionRequest;
+import com.example.jewellery_backend.dto.BulkReviewActionResultDto;
+import com.example.jewellery_backend.dto.RatingSummaryDto;
+import com.example.jewellery_backend.dto.ReviewPageDto;
 import com.example.jewellery_backend.dto.ReviewRequestDto;
 import com.example.jewellery_backend.dto.ReviewResponseDto;
 import com.example.jewellery_backend.entity.Product;
+import com.example.jewellery_backend.entity.ProductRatingSummary;
 import com.example.jewellery_backend.entity.Review;
+import com.example.jewellery_backend.repository.ProductRatingSummaryRepository;
 import com.example.jewellery_backend.repository.ProductRepository;
 import com.example.jewellery_backend.repository.ReviewRepository;
+import com.example.jewellery_backend.repository.ReviewRepository.ModerationRow;
+import com.example.jewellery_backend.service.ReviewIngestionBuffer;
 import com.example.jewellery_backend.service.ReviewService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,20 +40,47 @@ import java.util.stream.Collectors;
 public class ReviewServiceImpl implements ReviewService {
 
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_REVIEWS = 5000;
+    // start of the first page: sorts before every real review
+    private static final LocalDateTime FIRST_PAGE_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final ReviewRepository reviewRepository;
     private final ProductRepository productRepository;
+    private final ProductRatingSummaryRepository productRatingSummaryRepository;
+    private final ReviewIngestionBuffer reviewIngestionBuffer;
 
 
     @Override
+    // no surrounding transaction: the buffered path must not hold a connection, the direct path saves on its own
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ReviewResponseDto addReview(Long productId, ReviewRequestDto request) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + productId));
-
-
         if (request.getRating() < 1 || request.getRating() > 5) {
             throw new IllegalArgumentException("Rating must be between 1 and 5");
         }
 
+        if (reviewIngestionBuffer.isEnabled()) {
+            if (!reviewIngestionBuffer.isKnownProduct(productId)) {
+                throw new IllegalArgumentException("Product not found with id: " + productId);
+            }
+            ReviewIngestionBuffer.PendingReview pending = new ReviewIngestionBuffer.PendingReview(
+                    productId, request.getReviewerName(), request.getReviewerEmail(),
+                    request.getRating(), request.getCommentText(), LocalDateTime.now());
+            reviewIngestionBuffer.submit(pending);
+            // accepted, not yet stored: no id until the next flush
+            return ReviewResponseDto.builder()
+                    .reviewerName(pending.reviewerName())
+                    .reviewerEmail(pending.reviewerEmail())
+                    .commentText(pending.commentText())
+                    .rating(pending.rating())
+                    .reviewDate(pending.reviewDate())
+                    .isApproved(false)
+                    .build();
+        }
+
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + productId));
+
         Review review = Review.builder()
                 .product(product)
                 .reviewerName(request.getReviewerName())
@@ -51,9 +97,36 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ReviewResponseDto> getPublicReviewsForProduct(Long productId) {
-        return reviewRepository.findByProduct_ProductIdAndIsApprovedTrueOrderByReviewDateDesc(productId)
-                .stream().map(this::mapToDto).collect(Collectors.toList());
+    public ReviewPageDto getPublicReviewsForProduct(Long productId, String sort, String cursor, int limit) {
+        String order = sort == null ? "newest" : sort.toLowerCase();
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // one extra row tells whether there is a next page without counting
+        Pageable page = PageRequest.of(0, size + 1);
+        ReviewCursor after = cursor == null || cursor.isBlank() ? null : ReviewCursor.decode(cursor);
+
+        List<Review> rows = switch (order) {
+            case "newest" -> reviewRepository.findApprovedNewestAfter(productId,
+                    after != null ? after.reviewDate() : FIRST_PAGE_DATE,
+                    after != null ? after.reviewId() : Long.MAX_VALUE, page);
+            case "highest" -> reviewRepository.findApprovedHighestAfter(productId,
+                    after != null ? after.rating() : 6,
+                    after != null ? after.reviewDate() : FIRST_PAGE_DATE,
+                    after != null ? after.reviewId() : Long.MAX_VALUE, page);
+            case "lowest" -> reviewRepository.findApprovedLowestAfter(productId,
+                    after != null ? after.rating() : 0,
+                    after != null ? after.reviewDate() : FIRST_PAGE_DATE,
+                    after != null ? after.reviewId() : Long.MAX_VALUE, page);
+            default -> throw new IllegalArgumentException("Unknown sort: " + sort + " (use newest, highest or lowest)");
+        };
+
+        boolean hasMore = rows.size() > size;
+        List<Review> items = hasMore ? rows.subList(0, size) : rows;
+        Review last = items.isEmpty() ? null : items.get(items.size() - 1);
+        return ReviewPageDto.builder()
+                .items(items.stream().map(this::mapToDto).collect(Collectors.toList()))
+                .nextCursor(hasMore ? ReviewCursor.of(last).encode() : null)
+                .hasMore(hasMore)
+                .build();
     }
 
 
@@ -71,12 +144,27 @@ public class ReviewServiceImpl implements ReviewService {
         return reviewRepository.findAll().stream().map(this::mapToDto).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<AdminReviewRowDto> getModerationQueue(Boolean isApproved, Long productId, Integer minRating,
+                                                      Integer maxRating, LocalDate from, LocalDate to,
+                                                      int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)),
+                Sort.by(Sort.Order.desc("reviewDate"), Sort.Order.desc("reviewId")));
+        return reviewRepository.findModerationQueue(isApproved, productId, minRating, maxRating,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                pageable);
+    }
+
     @Override
     public void deleteReview(Long reviewId) {
-        if (!reviewRepository.existsById(reviewId)) {
-            throw new IllegalArgumentException("Review not found: " + reviewId);
+        Review r = reviewRepository.findForUpdateById(reviewId)
+                .orElseThrow(() -> new IllegalArgumentException("Review not found: " + reviewId));
+        if (Boolean.TRUE.equals(r.getIsApproved())) {
+            adjustRating(r.getProduct().getProductId(), r.getRating(), -1);
         }
-        reviewRepository.deleteById(reviewId);
+        reviewRepository.delete(r);
     }
 
 
@@ -84,9 +172,107 @@ public class ReviewServiceImpl implements ReviewService {
     public void approveReview(Long reviewId) {
         Review r = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new IllegalArgumentException("Review not found: " + reviewId));
-        r.setIsApproved(true);
-        reviewRepository.save(r);
+        // conditional update so approving twice (or concurrently) counts the review once
+        if (reviewRepository.approveIfPending(reviewId) == 1) {
+            adjustRating(r.getProduct().getProductId(), r.getRating(), 1);
+        }
+    }
+
+    @Override
+    public BulkReviewActionResultDto bulkApprove(BulkReviewActionRequest request) {
+        List<ModerationRow> rows = lockForModeration(request);
+        List<ModerationRow> pending = rows.stream().filter(r -> !Boolean.TRUE.equals(r.getApproved())).toList();
+        int affected = pending.isEmpty() ? 0 : reviewRepository.setApprovedByIds(reviewIds(pending), true);
+        adjustRatings(pending, 1);
+        return new BulkReviewActionResultDto(rows.size(), affected);
+    }
+
+    @Override
+    public BulkReviewActionResultDto bulkReject(BulkReviewActionRequest request) {
+        List<ModerationRow> rows = lockForModeration(request);
+        List<ModerationRow> approved = rows.stream().filter(r -> Boolean.TRUE.equals(r.getApproved())).toList();
+        int affected = approved.isEmpty() ? 0 : reviewRepository.setApprovedByIds(reviewIds(approved), false);
+        adjustRatings(approved, -1);
+        return new BulkReviewActionResultDto(rows.size(), affected);
+    }
+
+    @Override
+    public BulkReviewActionResultDto bulkDelete(BulkReviewActionRequest request) {
+        List<ModerationRow> rows = lockForModeration(request);
+        int affected = rows.isEmpty() ? 0 : reviewRepository.deleteAllByIds(reviewIds(rows));
+        adjustRatings(rows.stream().filter(r -> Boolean.TRUE.equals(r.getApproved())).toList(), -1);
+        return new BulkReviewActionResultDto(rows.size(), affected);
+    }
+
+    // Reads (and locks) the selected reviews once; the bulk write and the rating deltas both come from these rows
+    private List<ModerationRow> lockForModeration(BulkReviewActionRequest request) {
+        List<ModerationRow> rows;
+        if (request.getReviewIds() != null && !request.getReviewIds().isEmpty()) {
+            if (request.getReviewIds().size() > MAX_BULK_REVIEWS) {
+                throw new IllegalArgumentException("At most " + MAX_BULK_REVIEWS + " reviews per request");
+            }
+            rows = reviewRepository.lockModerationRowsByIds(new HashSet<>(request.getReviewIds()));
+        } else {
+            String email = request.getReviewerEmail() == null || request.getReviewerEmail().isBlank()
+                    ? null : request.getReviewerEmail().trim();
+            if (email == null && request.getProductId() == null && request.getIsApproved() == null) {
+                throw new IllegalArgumentException("Give reviewIds or at least one filter (reviewerEmail, productId, isApproved)");
+            }
+            rows = reviewRepository.lockModerationRowsByFilter(email, request.getProductId(), request.getIsApproved(),
+                    MAX_BULK_REVIEWS + 1);
+            if (rows.size() > MAX_BULK_REVIEWS) {
+                throw new IllegalArgumentException("Filter matches more than " + MAX_BULK_REVIEWS
+                        + " reviews, at most " + MAX_BULK_REVIEWS + " per request");
+            }
+        }
+        return rows;
+    }
+
+    private List<Long> reviewIds(List<ModerationRow> rows) {
+        return rows.stream().map(ModerationRow::getReviewId).collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RatingSummaryDto> getRatingSummaries(Collection<Long> productIds) {
+        Map<Long, ProductRatingSummary> summaries = productRatingSummaryRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(ProductRatingSummary::getProductId, Function.identity()));
+        return productIds.stream()
+                .distinct()
+                .map(id -> summaries.containsKey(id)
+                        ? RatingSummaryDto.fromEntity(summaries.get(id))
+                        : RatingSummaryDto.empty(id))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void rebuildRatingSummaries() {
+        productRatingSummaryRepository.deleteAllRows();
+        productRatingSummaryRepository.insertFromApprovedReviews();
+    }
+
+    // One applyDelta per product for all the rows, each row counting delta
+    private void adjustRatings(List<ModerationRow> rows, int delta) {
+        // per product: count, sum, 1..5 star counts
+        Map<Long, long[]> totals = new HashMap<>();
+        for (ModerationRow r : rows) {
+            long[] t = totals.computeIfAbsent(r.getProductId(), id -> new long[7]);
+            int rating = r.getRating();
+            t[0] += delta;
+            t[1] += (long) delta * rating;
+            if (rating >= 1 && rating <= 5) t[1 + rating] += delta;
+        }
+        totals.forEach((productId, t) ->
+                productRatingSummaryRepository.applyDelta(productId, t[0], t[1], t[2], t[3], t[4], t[5], t[6]));
+    }
+
+    // delta is +1 when a review becomes approved, -1 when an approved review goes away
+    private void adjustRating(Long productId, int rating, int delta) {
+        productRatingSummaryRepository.applyDelta(productId, delta, (long) delta * rating,
+                rating == 1 ? delta : 0, rating == 2 ? delta : 0, rating == 3 ? delta : 0,
+                rating == 4 ? delta : 0, rating == 5 ? delta : 0);
     }
+
     private ReviewResponseDto mapToDto(Review r) {
         return ReviewResponseDto.builder()
                 .reviewId(r.getReviewId())
@@ -98,5 +284,29 @@ public class ReviewServiceImpl implements ReviewService {
                 .isApproved(r.getIsApproved())
                 .build();
     }
-}
 
+    /**
+     * Position of the last review on a page. Opaque to clients (base64url of "rating~reviewDate~reviewId").
+     */
+    private record ReviewCursor(int rating, LocalDateTime reviewDate, long reviewId) {
+
+        static ReviewCursor of(Review r) {
+            return new ReviewCursor(r.getRating(), r.getReviewDate(), r.getReviewId());
+        }
+
+        String encode() {
+            String raw = rating + "~" + reviewDate + "~" + reviewId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static ReviewCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("~");
+                if (parts.length != 3) throw new IllegalArgumentException("Invalid cursor");
+                return new ReviewCursor(Integer.parseInt(parts[0]), LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.jewellery_backend.util;
 
 import com.example.jewellery_backend.CartItem;
 import com.example.jewellery_backend.dto.CartItemDto;
+import com.example.jewellery_backend.dto.ProductSummary;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
@@ -25,4 +26,15 @@ public class CartMapper {
                 .imageAlt(item.getImageAlt())
                 .build();
     }
+
+    // Same as toDto(item), with name and image refreshed from the product summary when available
+    public static CartItemDto toDto(CartItem item, ProductSummary summary) {
+        CartItemDto dto = toDto(item);
+        if (summary != null) {
+            dto.setProductName(summary.getProductName());
+            dto.setImageUrl(summary.getImageUrl());
+            dto.setImageAlt(summary.getImageAlt());
+        }
+        return dto;
+    }
 }
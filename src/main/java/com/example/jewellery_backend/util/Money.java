@@ -0,0 +1,24 @@
+package com.example.jewellery_backend.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between BigDecimal amounts and long minor units (cents).
+ */
+@UtilityClass
+public class Money {
+
+    public static final int SCALE = 2;
+
+    public static long toMinor(BigDecimal amount) {
+        if (amount == null) return 0L;
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromMinor(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.jewellery_backend.util;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Where uploaded product images live on disk and the public URL they are served from
+ * (PublicController: /api/public/images/...).
+ */
+@UtilityClass
+public class ProductImageUrls {
+
+    public static final String NAMESPACE = "images";
+    public static final String BLOB_PREFIX = "blobs/" + NAMESPACE + "/";
+    public static final String URL_PREFIX = "/api/public/images/";
+
+    /**
+     * "blobs/images/ab/cd/hash.jpg" -> "/api/public/images/ab/cd/hash.jpg"
+     */
+    public static String publicUrl(String relativePath) {
+        if (!relativePath.startsWith(BLOB_PREFIX)) {
+            throw new IllegalArgumentException("Not a product image path: " + relativePath);
+        }
+        return URL_PREFIX + relativePath.substring(BLOB_PREFIX.length());
+    }
+}
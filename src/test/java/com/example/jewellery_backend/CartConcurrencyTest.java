@@ -0,0 +1,139 @@
+package com.example.jewellery_backend;
+
+import com.example.jewellery_backend.util.CartMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers one cart from many threads: no change may be lost and the running totals must always
+ * agree with the lines.
+ */
+class CartConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 1_000;
+    private static final long SHARED_PRODUCT = 1L;
+    private static final BigDecimal SHARED_PRICE = new BigDecimal("10.25");
+    private static final BigDecimal OWN_PRICE = new BigDecimal("3.10");
+
+    @Test
+    void concurrentChangesAreNeverLost() throws Exception {
+        Cart cart = new Cart();
+
+        runConcurrently(thread -> {
+            long ownProduct = 100L + thread;
+            String ownKey = CartMapper.makeItemKey(ownProduct, null);
+            for (int i = 0; i < ROUNDS; i++) {
+                cart.addItem(item(SHARED_PRODUCT, SHARED_PRICE, 1));
+                cart.addItem(item(ownProduct, OWN_PRICE, 2));
+                // readers must always see a consistent snapshot
+                assertConsistent(cart.snapshot());
+            }
+            cart.updateQuantity(ownKey, ROUNDS);
+            if (thread % 2 == 1) cart.removeItem(ownKey);
+        });
+
+        Cart.Snapshot s = cart.snapshot();
+        assertConsistent(s);
+        assertEquals(THREADS * ROUNDS, s.items().get(CartMapper.makeItemKey(SHARED_PRODUCT, null)).getQuantity());
+        for (int thread = 0; thread < THREADS; thread++) {
+            CartItem own = s.items().get(CartMapper.makeItemKey(100L + thread, null));
+            if (thread % 2 == 1) {
+                assertNull(own, "line of thread " + thread + " should have been removed");
+            } else {
+                assertEquals(ROUNDS, own.getQuantity());
+            }
+        }
+
+        int evenThreads = (THREADS + 1) / 2;
+        assertEquals(THREADS * ROUNDS + evenThreads * ROUNDS, s.totalQuantity());
+        BigDecimal expectedTotal = SHARED_PRICE.multiply(BigDecimal.valueOf((long) THREADS * ROUNDS))
+                .add(OWN_PRICE.multiply(BigDecimal.valueOf((long) evenThreads * ROUNDS)));
+        assertEquals(0, expectedTotal.compareTo(s.cartTotal()), "cart total " + s.cartTotal());
+    }
+
+    @Test
+    void concurrentBatchesApplyAsOneStep() throws Exception {
+        Cart cart = new Cart();
+        String a = CartMapper.makeItemKey(1L, null);
+        String b = CartMapper.makeItemKey(2L, null);
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < ROUNDS; i++) {
+                // both lines always move together, so their quantities must stay equal
+                cart.update(edit -> {
+                    edit.add(item(1L, SHARED_PRICE, 1));
+                    edit.add(item(2L, OWN_PRICE, 1));
+                });
+                Cart.Snapshot s = cart.snapshot();
+                assertEquals(s.items().get(a).getQuantity(), s.items().get(b).getQuantity());
+            }
+        });
+
+        assertEquals(THREADS * ROUNDS, cart.getItems().get(a).getQuantity());
+        assertEquals(THREADS * ROUNDS, cart.getItems().get(b).getQuantity());
+        assertConsistent(cart.snapshot());
+    }
+
+    static CartItem item(long productId, BigDecimal price, int quantity) {
+        CartItem item = CartItem.builder()
+                .itemKey(CartMapper.makeItemKey(productId, null))
+                .productId(productId)
+                .productName("Product " + productId)
+                .unitPrice(price)
+                .quantity(quantity)
+                .build();
+        item.recalcTotal();
+        return item;
+    }
+
+    // running totals equal the sums over the lines
+    static void assertConsistent(Cart.Snapshot s) {
+        long minor = 0;
+        int quantity = 0;
+        for (CartItem line : s.items().values()) {
+            minor += line.getTotalMinor();
+            quantity += line.getQuantity();
+        }
+        assertEquals(minor, s.totalMinor());
+        assertEquals(quantity, s.totalQuantity());
+    }
+
+    interface ThreadBody {
+        void run(int thread) throws Exception;
+    }
+
+    // starts all threads at once and rethrows the first failure
+    static void runConcurrently(ThreadBody body) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    body.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                try {
+                    f.get(60, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Error error) throw error;
+                    throw (Exception) e.getCause();
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
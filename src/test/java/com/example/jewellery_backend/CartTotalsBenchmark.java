@@ -0,0 +1,190 @@
+package com.example.jewellery_backend;
+
+import com.example.jewellery_backend.util.CartMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart totals before and after the switch to running minor-unit totals.
+ * "streamed" is the previous Cart: line totals as BigDecimal, cart totals summed over all lines
+ * on every read (twice per rendered response). "running" is the current Cart.
+ * Each benchmark performs one change and renders the cart, as a cart request does.
+ * <p>
+ * Run with the test classpath: {@code java -cp <test classpath> com.example.jewellery_backend.CartTotalsBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CartTotalsBenchmark {
+
+    @Param({"5", "50"})
+    int lines;
+
+    private Cart running;
+    private StreamedCart streamed;
+    private String[] keys;
+    private CartItem[] items;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        running = new Cart();
+        streamed = new StreamedCart();
+        keys = new String[lines];
+        items = new CartItem[lines];
+        for (int i = 0; i < lines; i++) {
+            long productId = i + 1;
+            BigDecimal price = BigDecimal.valueOf(1999 + i * 37L, 2);
+            items[i] = line(productId, price, 1);
+            keys[i] = items[i].getItemKey();
+            running.addItem(items[i]);
+            streamed.addItem(items[i]);
+        }
+    }
+
+    private int nextLine() {
+        next = next + 1 == lines ? 0 : next + 1;
+        return next;
+    }
+
+    // ---------------- addItem ----------------
+
+    @Benchmark
+    public void addItemStreamed(Blackhole bh) {
+        streamed.addItem(items[nextLine()]);
+        streamed.render(bh);
+    }
+
+    @Benchmark
+    public void addItemRunning(Blackhole bh) {
+        running.addItem(items[nextLine()]);
+        render(running, bh);
+    }
+
+    // ---------------- updateQuantity ----------------
+
+    @Benchmark
+    public void updateQuantityStreamed(Blackhole bh) {
+        int i = nextLine();
+        streamed.updateQuantity(keys[i], 1 + (i & 7));
+        streamed.render(bh);
+    }
+
+    @Benchmark
+    public void updateQuantityRunning(Blackhole bh) {
+        int i = nextLine();
+        running.updateQuantity(keys[i], 1 + (i & 7));
+        render(running, bh);
+    }
+
+    // ---------------- toDto (render only) ----------------
+
+    @Benchmark
+    public void toDtoStreamed(Blackhole bh) {
+        streamed.render(bh);
+    }
+
+    @Benchmark
+    public void toDtoRunning(Blackhole bh) {
+        render(running, bh);
+    }
+
+    // what CartServiceImpl.toDto reads: one snapshot, lines and totals
+    private static void render(Cart cart, Blackhole bh) {
+        Cart.Snapshot s = cart.snapshot();
+        for (CartItem item : s.itemList()) {
+            bh.consume(item.getTotalPrice());
+        }
+        bh.consume(s.cartTotal());
+        bh.consume(s.totalQuantity());
+    }
+
+    private static CartItem line(long productId, BigDecimal price, int quantity) {
+        CartItem item = CartItem.builder()
+                .itemKey(CartMapper.makeItemKey(productId, null))
+                .productId(productId)
+                .productName("Product " + productId)
+                .unitPrice(price)
+                .quantity(quantity)
+                .build();
+        item.recalcTotal();
+        return item;
+    }
+
+    /**
+     * The previous cart: copy-on-write lines with BigDecimal line totals, totals streamed on every read.
+     */
+    static final class StreamedCart {
+        private Map<String, StreamedLine> items = Collections.emptyMap();
+
+        void addItem(CartItem item) {
+            Map<String, StreamedLine> copy = new LinkedHashMap<>(items);
+            StreamedLine existing = copy.get(item.getItemKey());
+            int quantity = existing == null ? item.getQuantity() : existing.quantity + item.getQuantity();
+            copy.put(item.getItemKey(), new StreamedLine(item.getUnitPrice(), quantity));
+            items = Collections.unmodifiableMap(copy);
+        }
+
+        void updateQuantity(String itemKey, int quantity) {
+            Map<String, StreamedLine> copy = new LinkedHashMap<>(items);
+            StreamedLine existing = copy.get(itemKey);
+            if (existing == null) return;
+            if (quantity <= 0) {
+                copy.remove(itemKey);
+            } else {
+                copy.put(itemKey, new StreamedLine(existing.unitPrice, quantity));
+            }
+            items = Collections.unmodifiableMap(copy);
+        }
+
+        BigDecimal cartTotal() {
+            return items.values().stream()
+                    .map(l -> l.totalPrice)
+                    .filter(Objects::nonNull)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+
+        int totalQuantity() {
+            return items.values().stream().mapToInt(l -> l.quantity).sum();
+        }
+
+        // the old toDto computed the totals once for the response and once more for the header fields
+        void render(Blackhole bh) {
+            for (StreamedLine line : new ArrayList<>(items.values())) {
+                bh.consume(line.totalPrice);
+            }
+            bh.consume(cartTotal());
+            bh.consume(totalQuantity());
+            bh.consume(cartTotal());
+            bh.consume(totalQuantity());
+        }
+    }
+
+    static final class StreamedLine {
+        final BigDecimal unitPrice;
+        final int quantity;
+        final BigDecimal totalPrice;
+
+        StreamedLine(BigDecimal unitPrice, int quantity) {
+            this.unitPrice = unitPrice;
+            this.quantity = quantity;
+            this.totalPrice = unitPrice.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CartTotalsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.jewellery_backend.service;
+
+import com.example.jewellery_backend.Cart;
+import com.example.jewellery_backend.dto.AddToCartRequest;
+import com.example.jewellery_backend.dto.CartResponseDto;
+import com.example.jewellery_backend.dto.ProductSummary;
+import com.example.jewellery_backend.dto.UpdateCartItemRequest;
+import com.example.jewellery_backend.exception.CartException;
+import com.example.jewellery_backend.util.CartMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Many requests for one cart token at the same time, against a store with the semantics of
+ * PersistentCartStore (private copies, version check on save) and against a shared cart as
+ * SessionCartStore hands out. Every successful call must show up exactly once in the final cart.
+ */
+class CartServiceImplConcurrencyTest {
+
+    private static final String TOKEN = "token-1";
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 200;
+    private static final long SHARED_PRODUCT = 1L;
+    private static final BigDecimal PRICE = new BigDecimal("7.35");
+
+    private ProductSummaryCache productSummaryCache;
+
+    @BeforeEach
+    void setUp() {
+        productSummaryCache = mock(ProductSummaryCache.class, withSettings().stubOnly());
+        when(productSummaryCache.get(anyLong())).thenAnswer(inv -> Optional.of(summary(inv.getArgument(0))));
+        when(productSummaryCache.getAll(any())).thenReturn(Map.of());
+    }
+
+    @Test
+    void versionedStoreLosesNoUpdate() throws Exception {
+        hammer(service(new VersionedStore()));
+    }
+
+    @Test
+    void sharedCartLosesNoUpdate() throws Exception {
+        Cart shared = new Cart();
+        hammer(service(new CartStore() {
+            @Override
+            public Cart load(String cartToken) {
+                return shared;
+            }
+
+            @Override
+            public void save(String cartToken, Cart cart) {
+            }
+
+            @Override
+            public void remove(String cartToken) {
+            }
+        }));
+    }
+
+    private CartServiceImpl service(CartStore store) {
+        return new CartServiceImpl(productSummaryCache, store, mock(CartValidator.class),
+                mock(ProductPricingService.class));
+    }
+
+    private void hammer(CartServiceImpl service) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    long ownProduct = 100L + thread;
+                    String ownKey = CartMapper.makeItemKey(ownProduct, null);
+                    for (int i = 0; i < ROUNDS; i++) {
+                        untilSaved(() -> service.addToCart(TOKEN, add(SHARED_PRODUCT, 1)));
+                        untilSaved(() -> service.addToCart(TOKEN, add(ownProduct, 1)));
+                    }
+                    untilSaved(() -> service.updateCartItem(TOKEN, new UpdateCartItemRequest(ownKey, 5)));
+                    if (thread % 2 == 1) untilSaved(() -> service.removeItem(TOKEN, ownKey));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) f.get(120, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        CartResponseDto cart = service.getCart(TOKEN);
+        Map<String, Integer> quantities = new HashMap<>();
+        cart.getItems().forEach(line -> quantities.put(line.getItemKey(), line.getQuantity()));
+
+        assertEquals(THREADS * ROUNDS, quantities.get(CartMapper.makeItemKey(SHARED_PRODUCT, null)));
+        int evenThreads = (THREADS + 1) / 2;
+        for (int thread = 0; thread < THREADS; thread++) {
+            Integer own = quantities.get(CartMapper.makeItemKey(100L + thread, null));
+            if (thread % 2 == 1) {
+                assertNull(own, "line of thread " + thread + " should have been removed");
+            } else {
+                assertEquals(5, own);
+            }
+        }
+        int expectedQuantity = THREADS * ROUNDS + evenThreads * 5;
+        assertEquals(expectedQuantity, cart.getTotalQuantity());
+        assertEquals(0, PRICE.multiply(BigDecimal.valueOf(expectedQuantity)).compareTo(cart.getCartTotal()),
+                "cart total " + cart.getCartTotal());
+    }
+
+    // a call that gave up after its save attempts changed nothing, so the client may simply retry
+    private static void untilSaved(Supplier<CartResponseDto> call) {
+        while (true) {
+            try {
+                call.get();
+                return;
+            } catch (CartException e) {
+                Thread.yield();
+            }
+        }
+    }
+
+    private static AddToCartRequest add(long productId, int quantity) {
+        return AddToCartRequest.builder().productId(productId).quantity(quantity).build();
+    }
+
+    private static ProductSummary summary(long productId) {
+        return ProductSummary.builder()
+                .productId(productId)
+                .productName("Product " + productId)
+                .price(PRICE)
+                .active(true)
+                .stockQuantity(1_000_000)
+                .build();
+    }
+
+    /**
+     * Same contract as PersistentCartStore: load returns a private copy, save fails when the
+     * stored version moved since the load.
+     */
+    private static final class VersionedStore implements CartStore {
+        private Cart stored = new Cart();
+        private long version;
+
+        @Override
+        public synchronized Cart load(String cartToken) {
+            return stored.copy();
+        }
+
+        @Override
+        public synchronized void save(String cartToken, Cart cart) {
+            if (!Objects.equals(cart.getVersion(), stored.getVersion())) {
+                throw new OptimisticLockingFailureException("Cart " + cartToken + " was changed by another request");
+            }
+            cart.setVersion(++version);
+            stored = cart.copy();
+        }
+
+        @Override
+        public synchronized void remove(String cartToken) {
+            stored = new Cart();
+        }
+    }
+}